@@ -0,0 +1,78 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring. Each node is placed at {@code virtualNodes} points so keys spread evenly, and adding
+ * or removing one of N nodes only moves the keys between it and its neighbours, about 1/N of the total.
+ */
+final class ConsistentHashRing {
+
+  private final Set<String> nodes;
+  private final long[] points;
+  private final String[] owners;
+
+  private ConsistentHashRing(Set<String> nodes, long[] points, String[] owners) {
+    this.nodes = nodes;
+    this.points = points;
+    this.owners = owners;
+  }
+
+  static ConsistentHashRing of(Collection<String> nodes, int virtualNodes) {
+    TreeMap<Long, String> ring = new TreeMap<>();
+    for (String node : new TreeSet<>(nodes)) {
+      for (int i = 0; i < virtualNodes; i++) {
+        // On the rare collision the lexically first node keeps the point, so every pod builds the same ring
+        ring.putIfAbsent(hash(node + "#" + i), node);
+      }
+    }
+    long[] points = new long[ring.size()];
+    String[] owners = new String[ring.size()];
+    int i = 0;
+    for (var entry : ring.entrySet()) {
+      points[i] = entry.getKey();
+      owners[i] = entry.getValue();
+      i++;
+    }
+    return new ConsistentHashRing(Set.copyOf(nodes), points, owners);
+  }
+
+  Set<String> nodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Node owning {@code key}: the first ring point at or after the key's hash, wrapping around. Null on an empty ring.
+   */
+  String owner(String key) {
+    if (this.points.length == 0) {
+      return null;
+    }
+    int index = Arrays.binarySearch(this.points, hash(key));
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return this.owners[index == this.points.length ? 0 : index];
+  }
+
+  // Stable across JVMs and pods, unlike String.hashCode mixing, and spreads the virtual nodes well
+  static long hash(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+      long hash = 0;
+      for (int i = 0; i < 8; i++) {
+        hash = (hash << 8) | (digest[i] & 0xff);
+      }
+      return hash;
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 is not available", e);
+    }
+  }
+}
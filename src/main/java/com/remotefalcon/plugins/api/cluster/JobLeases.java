@@ -0,0 +1,245 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Updates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.Document;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Runs maintenance jobs on one pod at a time by taking a time-bounded lease in the jobLeases collection
+ * (jobs.leases.enabled). Call it from the {@code @Scheduled} method, which still fires on every replica. Time is cut
+ * into windows as long as the lease: the first pod to claim the lease in a window does the work, and the lease is
+ * released when the run ends, but the lease remembers its window, so no pod runs it again until the next one. Pass a
+ * lease as long as the job's interval; a pod that dies mid-run holds the lease until it expires.
+ *
+ * <p>Jobs over all shows can be split into token-hash ranges with {@link #runPartitioned}, each range leased on its
+ * own. A pod takes a range only when it is ready to run it, starting from a random range, so the pods that fire
+ * together share a sweep instead of the first one claiming every range up front.
+ *
+ * <p>Work that is local to a pod, such as renewing its ownership lease, must not go
+ * through here.
+ */
+@ApplicationScoped
+public class JobLeases {
+
+  private static final Logger LOG = Logger.getLogger(JobLeases.class);
+  static final String LEASE_COLLECTION = "jobLeases";
+
+  @Inject
+  MongoClient mongoClient;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "jobs.leases.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "quarkus.mongodb.database")
+  String database;
+
+  @Inject
+  @ConfigProperty(name = "jobs.partitions")
+  int partitions;
+
+  private String holder;
+
+  /**
+   * A contiguous range of the 32-bit token hash space; together the partitions of a job cover every token exactly
+   * once.
+   */
+  public record Partition(int index, int count) {
+
+    public boolean contains(String showToken) {
+      return partitionOf(showToken, this.count) == this.index;
+    }
+
+    /**
+     * Lowest {@link #tokenHash} in the partition.
+     */
+    public long lowerHash() {
+      return Math.ceilDiv((long) this.index << 32, this.count);
+    }
+
+    /**
+     * First {@link #tokenHash} past the partition.
+     */
+    public long upperHash() {
+      return Math.ceilDiv((long) (this.index + 1) << 32, this.count);
+    }
+  }
+
+  @PostConstruct
+  void init() {
+    this.holder = System.getenv().getOrDefault("HOSTNAME", "local") + "-" + UUID.randomUUID().toString().substring(0, 8);
+  }
+
+  /**
+   * Runs {@code job} if this pod gets its lease; {@code job} returns the number of items it processed. Returns whether
+   * the job ran here.
+   */
+  public boolean runExclusive(String name, Duration lease, IntSupplier job) {
+    return this.runExclusive(name, name, lease, job);
+  }
+
+  private boolean runExclusive(String lease, String name, Duration duration, IntSupplier job) {
+    if (!this.acquire(lease, name, duration)) {
+      return false;
+    }
+    try {
+      this.run(name, job);
+    } finally {
+      this.release(lease);
+    }
+    return true;
+  }
+
+  /**
+   * Runs {@code job} once for every partition whose lease this pod gets. Returns the number of partitions run here.
+   */
+  public int runPartitioned(String name, Duration lease, ToIntFunction<Partition> job) {
+    return this.runPartitioned(name, lease, Runnable::run, job);
+  }
+
+  /**
+   * Same as {@link #runPartitioned(String, Duration, ToIntFunction)}, running the partitions on {@code executor} and
+   * waiting for all of them. Each partition's lease is taken when its task starts, so a bounded executor claims no
+   * more partitions than it has threads. A failing partition does not stop the others.
+   */
+  public int runPartitioned(String name, Duration lease, Executor executor, ToIntFunction<Partition> job) {
+    int first = ThreadLocalRandom.current().nextInt(this.partitions);
+    AtomicInteger ran = new AtomicInteger();
+    List<CompletableFuture<Void>> runs = new ArrayList<>();
+    for (int offset = 0; offset < this.partitions; offset++) {
+      Partition partition = new Partition((first + offset) % this.partitions, this.partitions);
+      runs.add(CompletableFuture.runAsync(() -> {
+        if (this.runExclusive(name + "#" + partition.index(), name, lease, () -> job.applyAsInt(partition))) {
+          ran.incrementAndGet();
+        }
+      }, executor).exceptionally(e -> {
+        LOG.warnf(e, "Job %s failed for partition %d/%d", name, partition.index(), partition.count());
+        return null;
+      }));
+    }
+    CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+    return ran.get();
+  }
+
+  /**
+   * Partition of a token: the hash space is cut into {@code count} equal ranges, so the mapping only depends on the
+   * token and the partition count.
+   */
+  static int partitionOf(String showToken, int count) {
+    return (int) ((tokenHash(showToken) * count) >>> 32);
+  }
+
+  /**
+   * The unsigned 32-bit hash partitions are cut from; stored on each show so a partition can be found by index.
+   */
+  public static long tokenHash(String showToken) {
+    CRC32 crc = new CRC32();
+    crc.update(showToken.getBytes(StandardCharsets.UTF_8));
+    return crc.getValue();
+  }
+
+  private void run(String name, IntSupplier job) {
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    try {
+      int items = job.getAsInt();
+      Counter.builder("jobs.items")
+          .description("Items processed by leased maintenance jobs")
+          .tag("job", name)
+          .register(this.meterRegistry)
+          .increment(items);
+    } finally {
+      sample.stop(Timer.builder("jobs.duration")
+          .description("Run time of leased maintenance jobs")
+          .tag("job", name)
+          .register(this.meterRegistry));
+    }
+  }
+
+  private boolean acquire(String lease, String name, Duration duration) {
+    if (!this.enabled) {
+      return true;
+    }
+    Instant now = Instant.now();
+    long window = now.toEpochMilli() / duration.toMillis();
+    boolean acquired = true;
+    try {
+      // Matches only if the lease is free and has not run in this window; otherwise the upsert collides with the
+      // existing lease's _id
+      this.leases().findOneAndUpdate(
+          Filters.and(Filters.eq("_id", lease),
+              Filters.lt("expiresAt", Date.from(now)),
+              Filters.not(Filters.gte("window", window))),
+          Updates.combine(
+              Updates.set("holder", this.holder),
+              Updates.set("window", window),
+              Updates.set("acquiredAt", Date.from(now)),
+              Updates.set("expiresAt", Date.from(now.plus(duration)))),
+          new FindOneAndUpdateOptions().upsert(true));
+    } catch (MongoCommandException e) {
+      if (ErrorCategory.fromErrorCode(e.getErrorCode()) != ErrorCategory.DUPLICATE_KEY) {
+        throw e;
+      }
+      acquired = false;
+    }
+    Counter.builder("jobs.lease.acquisitions")
+        .description("Job lease attempts by outcome")
+        .tag("job", name)
+        .tag("result", acquired ? "acquired" : "held")
+        .register(this.meterRegistry)
+        .increment();
+    if (!acquired) {
+      LOG.debugf("Job lease %s is held or has already run in this window", lease);
+    }
+    return acquired;
+  }
+
+  // Frees the lease for the next window; the window it ran in stays recorded
+  private void release(String lease) {
+    if (!this.enabled) {
+      return;
+    }
+    try {
+      this.leases().updateOne(Filters.and(Filters.eq("_id", lease), Filters.eq("holder", this.holder)),
+          Updates.combine(Updates.unset("holder"), Updates.set("expiresAt", new Date())));
+    } catch (RuntimeException e) {
+      // The lease still expires on its own
+      LOG.warnf(e, "Failed to release job lease %s", lease);
+    }
+  }
+
+  private MongoCollection<Document> leases() {
+    return this.mongoClient.getDatabase(this.database).getCollection(LEASE_COLLECTION);
+  }
+}
@@ -0,0 +1,205 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.bson.Document;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps show tokens to the pod that owns them (show.ownership.enabled). Every pod renews a lease document in the
+ * pluginPodLeases collection; the pods with unexpired leases form a consistent-hash ring, so all pods agree on each
+ * show's owner and scaling from N to N+1 pods moves only about 1/N of the shows. {@link ShowOwnershipFilter}
+ * forwards calls for shows owned elsewhere, so per-show caches and locks on the owner see all of its traffic.
+ */
+@ApplicationScoped
+public class ShowOwnership {
+
+  private static final Logger LOG = Logger.getLogger(ShowOwnership.class);
+  static final String LEASE_COLLECTION = "pluginPodLeases";
+
+  @Inject
+  MongoClient mongoClient;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "show.ownership.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "quarkus.mongodb.database")
+  String database;
+
+  @Inject
+  @ConfigProperty(name = "show.ownership.pod-address")
+  String podAddress;
+
+  @Inject
+  @ConfigProperty(name = "show.ownership.lease-ttl")
+  Duration leaseTtl;
+
+  @Inject
+  @ConfigProperty(name = "show.ownership.virtual-nodes")
+  int virtualNodes;
+
+  @Inject
+  @ConfigProperty(name = "show.ownership.forward-timeout")
+  Duration forwardTimeout;
+
+  @Inject
+  @ConfigProperty(name = "show.ownership.forward-secret")
+  Optional<String> forwardSecret;
+
+  private volatile ConsistentHashRing ring;
+  private HttpClient httpClient;
+  private Counter localRequests;
+  private Counter forwardedRequests;
+  private Counter fallbackRequests;
+
+  @PostConstruct
+  void init() {
+    this.ring = ConsistentHashRing.of(List.of(this.podAddress), this.virtualNodes);
+    this.httpClient = HttpClient.newBuilder()
+        .connectTimeout(this.forwardTimeout)
+        .build();
+    Gauge.builder("show.ownership.members", this, ownership -> ownership.ring.nodes().size())
+        .description("Pods with a live ownership lease")
+        .register(this.meterRegistry);
+    this.localRequests = this.requestCounter("local");
+    this.forwardedRequests = this.requestCounter("forwarded");
+    this.fallbackRequests = this.requestCounter("fallback");
+  }
+
+  private Counter requestCounter(String result) {
+    return Counter.builder("show.ownership.requests")
+        .description("Plugin calls by where they were served; local / total is the ownership hit rate")
+        .tag("result", result)
+        .register(this.meterRegistry);
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (this.enabled) {
+      if (!this.canForward()) {
+        LOG.warn("show.ownership.forward-secret is not set; calls for shows owned elsewhere are served locally");
+      }
+      this.leases().createIndex(Indexes.ascending("expiresAt"), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+      this.renewLease();
+    }
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    if (this.enabled) {
+      // Let the other pods take over our shows at their next renewal instead of waiting for the lease to expire
+      this.leases().deleteOne(Filters.eq("_id", this.podAddress));
+    }
+  }
+
+  @Scheduled(every = "${show.ownership.heartbeat-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void renewLease() {
+    if (!this.enabled) {
+      return;
+    }
+    try {
+      Instant now = Instant.now();
+      this.leases().replaceOne(Filters.eq("_id", this.podAddress),
+          new Document("_id", this.podAddress).append("expiresAt", Date.from(now.plus(this.leaseTtl))),
+          new ReplaceOptions().upsert(true));
+      Set<String> members = new HashSet<>();
+      members.add(this.podAddress);
+      for (Document lease : this.leases().find(Filters.gt("expiresAt", Date.from(now)))) {
+        members.add(lease.getString("_id"));
+      }
+      if (!members.equals(this.ring.nodes())) {
+        LOG.infof("Show ownership ring changed from %s to %s", this.ring.nodes(), members);
+        this.ring = ConsistentHashRing.of(members, this.virtualNodes);
+      }
+    } catch (RuntimeException e) {
+      // Keep routing with the last known ring; peers drop us if our lease really lapses
+      LOG.warnf(e, "Failed to renew show ownership lease for %s", this.podAddress);
+    }
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Base address of the pod owning the show, or empty if this pod owns it.
+   */
+  public Optional<String> ownerOf(String showToken) {
+    String owner = this.ring.owner(showToken);
+    return owner == null || owner.equals(this.podAddress) ? Optional.empty() : Optional.of(owner);
+  }
+
+  /**
+   * Whether a forward secret is configured. Without one a pod cannot prove a call came from a peer, so it neither
+   * forwards nor trusts forwarded calls.
+   */
+  boolean canForward() {
+    return this.forwardSecret.filter(secret -> !secret.isBlank()).isPresent();
+  }
+
+  String forwardSecret() {
+    return this.forwardSecret.orElseThrow();
+  }
+
+  /**
+   * Whether a {@link ShowOwnershipFilter#FORWARDED_HEADER} value was set by a peer pod rather than by a client.
+   */
+  boolean isTrustedForward(String headerValue) {
+    return headerValue != null && this.canForward() && MessageDigest.isEqual(
+        headerValue.getBytes(StandardCharsets.UTF_8), this.forwardSecret().getBytes(StandardCharsets.UTF_8));
+  }
+
+  HttpClient httpClient() {
+    return this.httpClient;
+  }
+
+  Duration forwardTimeout() {
+    return this.forwardTimeout;
+  }
+
+  void recordLocal() {
+    this.localRequests.increment();
+  }
+
+  void recordForwarded() {
+    this.forwardedRequests.increment();
+  }
+
+  void recordFallback() {
+    this.fallbackRequests.increment();
+  }
+
+  private MongoCollection<Document> leases() {
+    return this.mongoClient.getDatabase(this.database).getCollection(LEASE_COLLECTION);
+  }
+}
@@ -0,0 +1,131 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import com.remotefalcon.plugins.api.filters.AdminTokenFilter;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Forwards plugin calls for shows owned by another pod to that pod and relays its response. Runs before
+ * ShowTokenFilter so a non-owner never loads the show. A forwarded call carries the shared
+ * show.ownership.forward-secret in {@link #FORWARDED_HEADER} and is always served where it lands, so a ring that is
+ * briefly inconsistent between pods cannot bounce a call around; the header is dropped from calls that do not carry
+ * the secret. If the owner cannot be reached the call is served locally. The body is buffered for forwarding, so it is
+ * held to sync.max-bytes here, before any reader sees it.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class ShowOwnershipFilter implements ContainerRequestFilter {
+
+  private static final Logger LOG = Logger.getLogger(ShowOwnershipFilter.class);
+  static final String FORWARDED_HEADER = "X-Show-Owner-Forwarded";
+
+  // Headers java.net.http manages itself and refuses to have set
+  private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+  private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "content-length", "transfer-encoding", "keep-alive");
+
+  @Inject
+  ShowOwnership showOwnership;
+
+  @Inject
+  @ConfigProperty(name = "sync.max-bytes")
+  int maxBodyBytes;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) throws IOException {
+    if (!this.showOwnership.isEnabled()) {
+      return;
+    }
+    if (this.showOwnership.isTrustedForward(requestContext.getHeaderString(FORWARDED_HEADER))) {
+      return;
+    }
+    requestContext.getHeaders().remove(FORWARDED_HEADER);
+    if (!this.showOwnership.canForward()) {
+      return;
+    }
+    String path = requestContext.getUriInfo().getPath();
+    if (path.endsWith("/actuator/health") || AdminTokenFilter.isAdminPath(path)) {
+      return;
+    }
+    String showToken = requestContext.getHeaderString("showtoken");
+    if (showToken == null) {
+      showToken = requestContext.getHeaderString("remotetoken");
+    }
+    if (showToken == null || showToken.isEmpty()) {
+      return;
+    }
+
+    Optional<String> owner = this.showOwnership.ownerOf(showToken);
+    if (owner.isEmpty()) {
+      this.showOwnership.recordLocal();
+      return;
+    }
+
+    byte[] body = requestContext.hasEntity()
+        ? requestContext.getEntityStream().readNBytes(this.maxBodyBytes + 1)
+        : new byte[0];
+    if (body.length > this.maxBodyBytes) {
+      requestContext.abortWith(Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+          .entity("Request body exceeds " + this.maxBodyBytes + " bytes")
+          .build());
+      return;
+    }
+    try {
+      HttpResponse<byte[]> response = this.showOwnership.httpClient().send(
+          this.forwardRequest(requestContext, owner.get(), body), HttpResponse.BodyHandlers.ofByteArray());
+      this.showOwnership.recordForwarded();
+      requestContext.abortWith(this.relayResponse(response));
+    } catch (IOException e) {
+      LOG.debugf(e, "Owner %s unreachable for showToken=%s, serving locally", owner.get(), showToken);
+      this.showOwnership.recordFallback();
+      requestContext.setEntityStream(new ByteArrayInputStream(body));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.showOwnership.recordFallback();
+      requestContext.setEntityStream(new ByteArrayInputStream(body));
+    }
+  }
+
+  private HttpRequest forwardRequest(ContainerRequestContext requestContext, String owner, byte[] body) {
+    URI requestUri = requestContext.getUriInfo().getRequestUri();
+    String query = requestUri.getRawQuery();
+    HttpRequest.Builder builder = HttpRequest.newBuilder()
+        .uri(URI.create(owner + requestUri.getRawPath() + (query != null ? "?" + query : "")))
+        .timeout(this.showOwnership.forwardTimeout())
+        .method(requestContext.getMethod(), body.length == 0
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(body));
+    for (Map.Entry<String, List<String>> header : requestContext.getHeaders().entrySet()) {
+      if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+        header.getValue().forEach(value -> builder.header(header.getKey(), value));
+      }
+    }
+    return builder.header(FORWARDED_HEADER, this.showOwnership.forwardSecret()).build();
+  }
+
+  private Response relayResponse(HttpResponse<byte[]> response) {
+    Response.ResponseBuilder builder = Response.status(response.statusCode());
+    response.headers().map().forEach((name, values) -> {
+      if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+        values.forEach(value -> builder.header(name, value));
+      }
+    });
+    return builder.entity(response.body()).build();
+  }
+}
@@ -0,0 +1,115 @@
+package com.remotefalcon.plugins.api.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write helpers shared by the hand-written model codecs. They mirror the POJO codec's behaviour: null properties
+ * are not written, and numbers stored with a wider BSON type are still read back.
+ */
+final class BsonFields {
+
+  private BsonFields() {
+  }
+
+  static String readString(BsonReader reader) {
+    return switch (reader.getCurrentBsonType()) {
+      case STRING -> reader.readString();
+      case SYMBOL -> reader.readSymbol();
+      default -> skip(reader);
+    };
+  }
+
+  static Integer readInteger(BsonReader reader) {
+    return switch (reader.getCurrentBsonType()) {
+      case INT32 -> reader.readInt32();
+      case INT64 -> Math.toIntExact(reader.readInt64());
+      case DOUBLE -> (int) reader.readDouble();
+      case DECIMAL128 -> reader.readDecimal128().intValue();
+      default -> skip(reader);
+    };
+  }
+
+  static Boolean readBoolean(BsonReader reader) {
+    if (reader.getCurrentBsonType() == BsonType.BOOLEAN) {
+      return reader.readBoolean();
+    }
+    return skip(reader);
+  }
+
+  static <T> T readValue(BsonReader reader, Codec<T> codec, DecoderContext decoderContext) {
+    if (reader.getCurrentBsonType() == BsonType.NULL) {
+      reader.readNull();
+      return null;
+    }
+    return decoderContext.decodeWithChildContext(codec, reader);
+  }
+
+  static List<String> readStrings(BsonReader reader) {
+    if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+      return skip(reader);
+    }
+    List<String> values = new ArrayList<>();
+    reader.readStartArray();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      values.add(readString(reader));
+    }
+    reader.readEndArray();
+    return values;
+  }
+
+  static void writeString(BsonWriter writer, String name, String value) {
+    if (value != null) {
+      writer.writeString(name, value);
+    }
+  }
+
+  static void writeInteger(BsonWriter writer, String name, Integer value) {
+    if (value != null) {
+      writer.writeInt32(name, value);
+    }
+  }
+
+  static void writeBoolean(BsonWriter writer, String name, Boolean value) {
+    if (value != null) {
+      writer.writeBoolean(name, value);
+    }
+  }
+
+  static <T> void writeValue(BsonWriter writer, String name, T value, Codec<T> codec, EncoderContext encoderContext) {
+    if (value != null) {
+      writer.writeName(name);
+      encoderContext.encodeWithChildContext(codec, writer, value);
+    }
+  }
+
+  static void writeStrings(BsonWriter writer, String name, List<String> values) {
+    if (values == null) {
+      return;
+    }
+    writer.writeStartArray(name);
+    for (String value : values) {
+      if (value == null) {
+        writer.writeNull();
+      } else {
+        writer.writeString(value);
+      }
+    }
+    writer.writeEndArray();
+  }
+
+  /**
+   * Skips the current value, including explicit nulls, and returns null for the unset property.
+   */
+  static <T> T skip(BsonReader reader) {
+    reader.skipValue();
+    return null;
+  }
+}
@@ -0,0 +1,35 @@
+package com.remotefalcon.plugins.api.codec;
+
+import com.remotefalcon.library.models.*;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registers hand-written codecs for the embedded library models this API reads and writes on every request, ahead of
+ * the reflective POJO codec. Quarkus picks up {@link CodecProvider} implementations automatically. Sequence groups
+ * and everything else on the Show still go through the POJO codec.
+ */
+public class ModelCodecProvider implements CodecProvider {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+    if (clazz == Sequence.class) {
+      return (Codec<T>) new SequenceCodec();
+    }
+    if (clazz == PsaSequence.class) {
+      return (Codec<T>) new PsaSequenceCodec(registry.get(LocalDateTime.class));
+    }
+    if (clazz == Request.class) {
+      return (Codec<T>) new RequestCodec(registry.get(Sequence.class));
+    }
+    if (clazz == Vote.class) {
+      return (Codec<T>) new VoteCodec(registry.get(Sequence.class), registry.get(SequenceGroup.class),
+          registry.get(LocalDateTime.class));
+    }
+    return null;
+  }
+}
@@ -0,0 +1,52 @@
+package com.remotefalcon.plugins.api.codec;
+
+import com.remotefalcon.library.models.PsaSequence;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.time.LocalDateTime;
+
+import static com.remotefalcon.plugins.api.codec.BsonFields.*;
+
+public class PsaSequenceCodec implements Codec<PsaSequence> {
+
+  private final Codec<LocalDateTime> localDateTimeCodec;
+
+  public PsaSequenceCodec(Codec<LocalDateTime> localDateTimeCodec) {
+    this.localDateTimeCodec = localDateTimeCodec;
+  }
+
+  @Override
+  public PsaSequence decode(BsonReader reader, DecoderContext decoderContext) {
+    PsaSequence psaSequence = new PsaSequence();
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "name" -> psaSequence.setName(readString(reader));
+        case "order" -> psaSequence.setOrder(readInteger(reader));
+        case "lastPlayed" -> psaSequence.setLastPlayed(readValue(reader, this.localDateTimeCodec, decoderContext));
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return psaSequence;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, PsaSequence psaSequence, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    writeString(writer, "name", psaSequence.getName());
+    writeInteger(writer, "order", psaSequence.getOrder());
+    writeValue(writer, "lastPlayed", psaSequence.getLastPlayed(), this.localDateTimeCodec, encoderContext);
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public Class<PsaSequence> getEncoderClass() {
+    return PsaSequence.class;
+  }
+}
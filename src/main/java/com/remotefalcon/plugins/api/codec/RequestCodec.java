@@ -0,0 +1,53 @@
+package com.remotefalcon.plugins.api.codec;
+
+import com.remotefalcon.library.models.Request;
+import com.remotefalcon.library.models.Sequence;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import static com.remotefalcon.plugins.api.codec.BsonFields.*;
+
+public class RequestCodec implements Codec<Request> {
+
+  private final Codec<Sequence> sequenceCodec;
+
+  public RequestCodec(Codec<Sequence> sequenceCodec) {
+    this.sequenceCodec = sequenceCodec;
+  }
+
+  @Override
+  public Request decode(BsonReader reader, DecoderContext decoderContext) {
+    Request request = new Request();
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "sequence" -> request.setSequence(readValue(reader, this.sequenceCodec, decoderContext));
+        case "position" -> request.setPosition(readInteger(reader));
+        case "ownerRequested" -> request.setOwnerRequested(readBoolean(reader));
+        case "viewerRequested" -> request.setViewerRequested(readString(reader));
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return request;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, Request request, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    writeValue(writer, "sequence", request.getSequence(), this.sequenceCodec, encoderContext);
+    writeInteger(writer, "position", request.getPosition());
+    writeBoolean(writer, "ownerRequested", request.getOwnerRequested());
+    writeString(writer, "viewerRequested", request.getViewerRequested());
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public Class<Request> getEncoderClass() {
+    return Request.class;
+  }
+}
@@ -0,0 +1,66 @@
+package com.remotefalcon.plugins.api.codec;
+
+import com.remotefalcon.library.models.Sequence;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import static com.remotefalcon.plugins.api.codec.BsonFields.*;
+
+public class SequenceCodec implements Codec<Sequence> {
+
+  @Override
+  public Sequence decode(BsonReader reader, DecoderContext decoderContext) {
+    Sequence sequence = new Sequence();
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "name" -> sequence.setName(readString(reader));
+        case "key" -> sequence.setKey(readString(reader));
+        case "displayName" -> sequence.setDisplayName(readString(reader));
+        case "duration" -> sequence.setDuration(readInteger(reader));
+        case "visible" -> sequence.setVisible(readBoolean(reader));
+        case "index" -> sequence.setIndex(readInteger(reader));
+        case "order" -> sequence.setOrder(readInteger(reader));
+        case "imageUrl" -> sequence.setImageUrl(readString(reader));
+        case "active" -> sequence.setActive(readBoolean(reader));
+        case "visibilityCount" -> sequence.setVisibilityCount(readInteger(reader));
+        case "type" -> sequence.setType(readString(reader));
+        case "group" -> sequence.setGroup(readString(reader));
+        case "category" -> sequence.setCategory(readString(reader));
+        case "artist" -> sequence.setArtist(readString(reader));
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return sequence;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, Sequence sequence, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    writeString(writer, "name", sequence.getName());
+    writeString(writer, "key", sequence.getKey());
+    writeString(writer, "displayName", sequence.getDisplayName());
+    writeInteger(writer, "duration", sequence.getDuration());
+    writeBoolean(writer, "visible", sequence.getVisible());
+    writeInteger(writer, "index", sequence.getIndex());
+    writeInteger(writer, "order", sequence.getOrder());
+    writeString(writer, "imageUrl", sequence.getImageUrl());
+    writeBoolean(writer, "active", sequence.getActive());
+    writeInteger(writer, "visibilityCount", sequence.getVisibilityCount());
+    writeString(writer, "type", sequence.getType());
+    writeString(writer, "group", sequence.getGroup());
+    writeString(writer, "category", sequence.getCategory());
+    writeString(writer, "artist", sequence.getArtist());
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public Class<Sequence> getEncoderClass() {
+    return Sequence.class;
+  }
+}
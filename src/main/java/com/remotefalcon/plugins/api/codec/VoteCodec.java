@@ -0,0 +1,65 @@
+package com.remotefalcon.plugins.api.codec;
+
+import com.remotefalcon.library.models.Sequence;
+import com.remotefalcon.library.models.SequenceGroup;
+import com.remotefalcon.library.models.Vote;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.time.LocalDateTime;
+
+import static com.remotefalcon.plugins.api.codec.BsonFields.*;
+
+public class VoteCodec implements Codec<Vote> {
+
+  private final Codec<Sequence> sequenceCodec;
+  private final Codec<SequenceGroup> sequenceGroupCodec;
+  private final Codec<LocalDateTime> localDateTimeCodec;
+
+  public VoteCodec(Codec<Sequence> sequenceCodec, Codec<SequenceGroup> sequenceGroupCodec,
+                   Codec<LocalDateTime> localDateTimeCodec) {
+    this.sequenceCodec = sequenceCodec;
+    this.sequenceGroupCodec = sequenceGroupCodec;
+    this.localDateTimeCodec = localDateTimeCodec;
+  }
+
+  @Override
+  public Vote decode(BsonReader reader, DecoderContext decoderContext) {
+    Vote vote = new Vote();
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "sequence" -> vote.setSequence(readValue(reader, this.sequenceCodec, decoderContext));
+        case "sequenceGroup" -> vote.setSequenceGroup(readValue(reader, this.sequenceGroupCodec, decoderContext));
+        case "votes" -> vote.setVotes(readInteger(reader));
+        case "viewersVoted" -> vote.setViewersVoted(readStrings(reader));
+        case "lastVoteTime" -> vote.setLastVoteTime(readValue(reader, this.localDateTimeCodec, decoderContext));
+        case "ownerVoted" -> vote.setOwnerVoted(readBoolean(reader));
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return vote;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, Vote vote, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    writeValue(writer, "sequence", vote.getSequence(), this.sequenceCodec, encoderContext);
+    writeValue(writer, "sequenceGroup", vote.getSequenceGroup(), this.sequenceGroupCodec, encoderContext);
+    writeInteger(writer, "votes", vote.getVotes());
+    writeStrings(writer, "viewersVoted", vote.getViewersVoted());
+    writeValue(writer, "lastVoteTime", vote.getLastVoteTime(), this.localDateTimeCodec, encoderContext);
+    writeBoolean(writer, "ownerVoted", vote.getOwnerVoted());
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public Class<Vote> getEncoderClass() {
+    return Vote.class;
+  }
+}
@@ -1,13 +1,37 @@
 package com.remotefalcon.plugins.api.context;
 
 import com.remotefalcon.library.quarkus.entity.Show;
-import jakarta.enterprise.context.RequestScoped;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.EntityTag;
 import lombok.Getter;
 import lombok.Setter;
 
-@RequestScoped
+/**
+ * The show resolved by ShowTokenFilter for one request. Not a bean: the filter stores it as a request property and
+ * the controller hands it to the service explicitly, so a plugin call creates no request-scoped beans or proxies.
+ */
 @Getter
 @Setter
 public class ShowContext {
+
+  private static final String PROPERTY = ShowContext.class.getName();
+
+  private String showToken;
+  // Not loaded for endpoints that read their own projection, such as pluginState
   private Show show;
-}
\ No newline at end of file
+  // ShowLockManager generation taken before the show was read
+  private long lockStamp;
+  // Tag of the fields the response is built from, read before the show, for endpoints with conditional reads; null otherwise
+  private EntityTag stateTag;
+
+  public void attachTo(ContainerRequestContext requestContext) {
+    requestContext.setProperty(PROPERTY, this);
+  }
+
+  /**
+   * The context ShowTokenFilter attached to the request, or null if the filter did not resolve a show.
+   */
+  public static ShowContext of(ContainerRequestContext requestContext) {
+    return (ShowContext) requestContext.getProperty(PROPERTY);
+  }
+}
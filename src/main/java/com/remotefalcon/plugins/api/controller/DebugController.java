@@ -0,0 +1,37 @@
+package com.remotefalcon.plugins.api.controller;
+
+import com.remotefalcon.plugins.api.filters.AdminOnly;
+import com.remotefalcon.plugins.api.filters.ShowRateLimiter;
+import com.remotefalcon.plugins.api.metrics.ShowDocumentMetrics;
+import com.remotefalcon.plugins.api.model.ShowDocumentSize;
+import com.remotefalcon.plugins.api.model.ThrottledShow;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.List;
+
+@Path("/debug")
+@AdminOnly
+public class DebugController {
+
+  @Inject
+  ShowDocumentMetrics showDocumentMetrics;
+
+  @Inject
+  ShowRateLimiter showRateLimiter;
+
+  @GET
+  @Path("/largestShows")
+  @Produces(MediaType.APPLICATION_JSON)
+  public List<ShowDocumentSize> largestShows(@QueryParam("limit") @DefaultValue("20") int limit) {
+    return this.showDocumentMetrics.largestShows(limit);
+  }
+
+  @GET
+  @Path("/throttledShows")
+  @Produces(MediaType.APPLICATION_JSON)
+  public List<ThrottledShow> throttledShows(@QueryParam("limit") @DefaultValue("20") int limit) {
+    return this.showRateLimiter.topOffenders(limit);
+  }
+}
@@ -1,126 +1,183 @@
 package com.remotefalcon.plugins.api.controller;
 
+import com.remotefalcon.plugins.api.context.ShowContext;
 import com.remotefalcon.plugins.api.model.*;
+import com.remotefalcon.plugins.api.providers.CborMessageBodyHandler;
+import com.remotefalcon.plugins.api.service.Bulkheads;
 import com.remotefalcon.plugins.api.service.PluginService;
+import com.remotefalcon.plugins.api.service.PluginStateReader;
+import com.remotefalcon.plugins.api.service.ResponseBodies;
+import io.smallrye.common.annotation.Blocking;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+// Keep the filters, which read the show, off the event loop even though most endpoints return a CompletionStage
+@Blocking
 @Path("/")
 public class PluginController {
 
   @Inject
   PluginService pluginService;
 
+  @Inject
+  Bulkheads bulkheads;
+
+  @Inject
+  PluginStateReader pluginStateReader;
+
+  // Returns a cached byte[] body for the polled read endpoints when response.cache.enabled, hence their Object type
+  @Inject
+  ResponseBodies responseBodies;
+
   @GET
   @Path("/nextPlaylistInQueue")
-  @Produces(MediaType.APPLICATION_JSON)
-  public NextPlaylistResponse nextPlaylistInQueue() {
-    return this.pluginService.nextPlaylistInQueue();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<NextPlaylistResponse> nextPlaylistInQueue(@Context ContainerRequestContext requestContext) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME, () -> this.pluginService.nextPlaylistInQueue(showContext));
   }
 
   @POST
   @Path("/updatePlaylistQueue")
-  @Produces(MediaType.APPLICATION_JSON)
-  public PluginResponse updatePlaylistQueue() {
-    return this.pluginService.updatePlaylistQueue();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<Object> updatePlaylistQueue(@Context ContainerRequestContext requestContext, @Context HttpHeaders headers) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME,
+        () -> this.cachedJson(headers, showContext, "updatePlaylistQueue", () -> this.pluginService.updatePlaylistQueue(showContext)));
   }
 
   @POST
   @Path("/syncPlaylists")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse syncPlaylists(SyncPlaylistRequest request) {
-    return this.pluginService.syncPlaylists(request);
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> syncPlaylists(@Context ContainerRequestContext requestContext, SyncPlaylistRequest request) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.syncPlaylists(showContext, request));
   }
 
   @POST
   @Path("/updateWhatsPlaying")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse updateWhatsPlaying(UpdateWhatsPlayingRequest request) {
-    return this.pluginService.updateWhatsPlaying(request);
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> updateWhatsPlaying(@Context ContainerRequestContext requestContext, UpdateWhatsPlayingRequest request) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME, () -> this.pluginService.updateWhatsPlaying(showContext, request));
   }
 
   @POST
   @Path("/updateNextScheduledSequence")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse updateNextScheduledSequence(UpdateNextScheduledRequest request) {
-    return this.pluginService.updateNextScheduledSequence(request);
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> updateNextScheduledSequence(@Context ContainerRequestContext requestContext, UpdateNextScheduledRequest request) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME, () -> this.pluginService.updateNextScheduledSequence(showContext, request));
   }
 
   @GET
   @Path("/viewerControlMode")
-  @Produces(MediaType.APPLICATION_JSON)
-  public PluginResponse viewerControlMode() {
-    return this.pluginService.viewerControlMode();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<Object> viewerControlMode(@Context ContainerRequestContext requestContext, @Context HttpHeaders headers) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME,
+        () -> this.cachedJson(headers, showContext, "viewerControlMode", () -> this.pluginService.viewerControlMode(showContext)));
   }
 
   @GET
   @Path("/highestVotedPlaylist")
-  @Produces(MediaType.APPLICATION_JSON)
-  public HighestVotedPlaylistResponse highestVotedPlaylist() {
-    return this.pluginService.highestVotedPlaylist();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<HighestVotedPlaylistResponse> highestVotedPlaylist(@Context ContainerRequestContext requestContext) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME, () -> this.pluginService.highestVotedPlaylist(showContext));
+  }
+
+  @GET
+  @Path("/pluginState")
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<Response> pluginState(@Context ContainerRequestContext requestContext, @Context Request request) {
+    String showToken = ShowContext.of(requestContext).getShowToken();
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME, () -> {
+      PluginState state = this.pluginStateReader.read(showToken);
+      EntityTag etag = PluginStateReader.etag(state);
+      Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+      return notModified != null ? notModified.build() : Response.ok(state).tag(etag).build();
+    });
   }
 
   @POST
   @Path("/pluginVersion")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse pluginVersion(PluginVersion request) {
-    return this.pluginService.pluginVersion(request);
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> pluginVersion(@Context ContainerRequestContext requestContext, PluginVersion request) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.pluginVersion(showContext, request));
   }
 
   @GET
   @Path("/remotePreferences")
-  @Produces(MediaType.APPLICATION_JSON)
-  public RemotePreferenceResponse remotePreferences() {
-    return this.pluginService.remotePreferences();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<Object> remotePreferences(@Context ContainerRequestContext requestContext, @Context HttpHeaders headers) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.REALTIME,
+        () -> this.cachedJson(headers, showContext, "remotePreferences", () -> this.pluginService.remotePreferences(showContext)));
   }
 
   @DELETE
   @Path("/purgeQueue")
-  @Produces(MediaType.APPLICATION_JSON)
-  public PluginResponse purgeQueue() {
-    return this.pluginService.purgeQueue();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> purgeQueue(@Context ContainerRequestContext requestContext) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.purgeQueue(showContext));
   }
 
   @DELETE
   @Path("/resetAllVotes")
-  @Produces(MediaType.APPLICATION_JSON)
-  public PluginResponse resetAllVotes() {
-    return this.pluginService.resetAllVotes();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> resetAllVotes(@Context ContainerRequestContext requestContext) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.resetAllVotes(showContext));
   }
 
   @POST
   @Path("/toggleViewerControl")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse toggleViewerControl() {
-    return this.pluginService.toggleViewerControl();
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> toggleViewerControl(@Context ContainerRequestContext requestContext) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.toggleViewerControl(showContext));
   }
 
   @POST
   @Path("/updateViewerControl")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse updateViewerControl(ViewerControlRequest request) {
-    return this.pluginService.updateViewerControl(request);
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> updateViewerControl(@Context ContainerRequestContext requestContext, ViewerControlRequest request) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.updateViewerControl(showContext, request));
   }
 
   @POST
   @Path("/updateManagedPsa")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
-  public PluginResponse updateManagedPsa(ManagedPSARequest request) {
-    return this.pluginService.updateManagedPsa(request);
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  public CompletionStage<PluginResponse> updateManagedPsa(@Context ContainerRequestContext requestContext, ManagedPSARequest request) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    return this.bulkheads.submit(Bulkheads.Pool.BULK, () -> this.pluginService.updateManagedPsa(showContext, request));
   }
 
   @POST
   @Path("/fppHeartbeat")
-  @Produces(MediaType.APPLICATION_JSON)
-  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+  @Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
   public void fppHeartbeat() {
     // this.pluginService.fppHeartbeat();
   }
@@ -134,4 +191,11 @@ public class PluginController {
         .status("UP")
         .build();
   }
+
+  // The cached bodies are JSON; a caller asking for CBOR gets the response object to serialize
+  private Object cachedJson(HttpHeaders headers, ShowContext showContext, String endpoint, Supplier<?> call) {
+    return CborMessageBodyHandler.prefersCbor(headers)
+        ? call.get()
+        : this.responseBodies.cached(showContext, endpoint, call);
+  }
 }
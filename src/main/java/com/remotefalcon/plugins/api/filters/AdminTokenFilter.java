@@ -0,0 +1,61 @@
+package com.remotefalcon.plugins.api.filters;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Requires the {@value #ADMIN_TOKEN_HEADER} header to match debug.admin-token on {@link AdminOnly} endpoints. Without
+ * a configured token those endpoints answer 404, so they are off unless an operator turns them on. Runs ahead of the
+ * other filters, which do not apply to these paths (see {@link #isAdminPath(String)}).
+ */
+@Provider
+@AdminOnly
+@Priority(Priorities.AUTHENTICATION - 200)
+public class AdminTokenFilter implements ContainerRequestFilter {
+
+  static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+  private static final String ADMIN_PATH_PREFIX = "debug/";
+
+  @Inject
+  @ConfigProperty(name = "debug.admin-token")
+  Optional<String> adminToken;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    if (this.adminToken.isEmpty() || this.adminToken.get().isBlank()) {
+      requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).build());
+      return;
+    }
+    String presented = requestContext.getHeaderString(ADMIN_TOKEN_HEADER);
+    if (presented == null || !MessageDigest.isEqual(
+        presented.getBytes(StandardCharsets.UTF_8), this.adminToken.get().getBytes(StandardCharsets.UTF_8))) {
+      requestContext.abortWith(
+          Response.status(Response.Status.UNAUTHORIZED)
+              .entity("Missing or invalid admin token")
+              .build()
+      );
+    }
+  }
+
+  /**
+   * Whether {@code path} is under /debug/, matched as a prefix of the request path rather than anywhere in it. Such
+   * calls carry no show token, so the show filters let them through to this filter.
+   */
+  public static boolean isAdminPath(String path) {
+    int start = 0;
+    while (start < path.length() && path.charAt(start) == '/') {
+      start++;
+    }
+    return path.startsWith(ADMIN_PATH_PREFIX, start);
+  }
+}
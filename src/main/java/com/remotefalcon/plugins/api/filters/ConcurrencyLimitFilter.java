@@ -0,0 +1,54 @@
+package com.remotefalcon.plugins.api.filters;
+
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Applies {@link ConcurrencyLimiter} to plugin calls. Runs ahead of the ownership and show token filters, so a shed
+ * call costs neither a forward nor a Mongo read. The permit is returned from the Vert.x end handler, which runs once
+ * the response is sent or the request fails or the connection drops, so no outcome can leak it.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+public class ConcurrencyLimitFilter implements ContainerRequestFilter {
+
+  @Inject
+  ConcurrencyLimiter concurrencyLimiter;
+
+  @Inject
+  CurrentVertxRequest currentVertxRequest;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    if (!this.concurrencyLimiter.isEnabled()) {
+      return;
+    }
+    String path = requestContext.getUriInfo().getPath();
+    if (path.endsWith("/actuator/health") || AdminTokenFilter.isAdminPath(path)) {
+      return;
+    }
+    if (!this.concurrencyLimiter.tryAcquire(ConcurrencyLimiter.Priority.of(path))) {
+      requestContext.abortWith(
+          Response.status(Response.Status.SERVICE_UNAVAILABLE)
+              .header(HttpHeaders.RETRY_AFTER, 1)
+              .entity("Server is busy, try again shortly")
+              .build()
+      );
+      return;
+    }
+    long admittedAt = this.concurrencyLimiter.clock.getAsLong();
+    RoutingContext routingContext = this.currentVertxRequest.getCurrent();
+    // A call that never got a response, such as one whose client went away, counts as failed
+    routingContext.addEndHandler(end -> this.concurrencyLimiter.release(
+        this.concurrencyLimiter.clock.getAsLong() - admittedAt,
+        end.failed() || routingContext.response().getStatusCode() >= 500));
+  }
+}
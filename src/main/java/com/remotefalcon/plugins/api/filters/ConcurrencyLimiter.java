@@ -0,0 +1,151 @@
+package com.remotefalcon.plugins.api.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limit for plugin calls (concurrency.limit.enabled). The limit grows by about one for every limit's
+ * worth of calls that finish within concurrency.limit.latency-target, and is cut by concurrency.limit.backoff, at most
+ * once per latency target, when a call is slower or fails with a 5xx. Calls over the limit are rejected instead of
+ * queueing on the worker pool. Lower priorities only get a share of the limit, so they are shed first.
+ */
+@ApplicationScoped
+public class ConcurrencyLimiter {
+
+  public enum Priority {
+    // What FPP needs to keep the show playing
+    CRITICAL(1.0, Set.of("nextPlaylistInQueue", "updateWhatsPlaying")),
+    NORMAL(0.8, Set.of()),
+    // Safe to drop; the plugin retries them on its next cycle
+    LOW(0.5, Set.of("pluginVersion", "fppHeartbeat", "updatePlaylistQueue"));
+
+    private final double share;
+    private final Set<String> paths;
+
+    Priority(double share, Set<String> paths) {
+      this.share = share;
+      this.paths = paths;
+    }
+
+    public static Priority of(String path) {
+      String endpoint = path.substring(path.lastIndexOf('/') + 1);
+      for (Priority priority : values()) {
+        if (priority.paths.contains(endpoint)) {
+          return priority;
+        }
+      }
+      return NORMAL;
+    }
+  }
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "concurrency.limit.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "concurrency.limit.initial")
+  int initialLimit;
+
+  @Inject
+  @ConfigProperty(name = "concurrency.limit.min")
+  int minLimit;
+
+  @Inject
+  @ConfigProperty(name = "concurrency.limit.max")
+  int maxLimit;
+
+  @Inject
+  @ConfigProperty(name = "concurrency.limit.latency-target")
+  Duration latencyTarget;
+
+  @Inject
+  @ConfigProperty(name = "concurrency.limit.backoff")
+  double backoff;
+
+  LongSupplier clock = System::nanoTime;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+  private volatile double limit;
+  private long lastDecrease;
+
+  @PostConstruct
+  void init() {
+    this.limit = this.initialLimit;
+    this.lastDecrease = this.clock.getAsLong() - this.latencyTarget.toNanos();
+    for (Priority priority : Priority.values()) {
+      this.shed.put(priority, Counter.builder("plugin.concurrency.shed")
+          .description("Plugin calls rejected with 503 by the concurrency limit")
+          .tag("priority", priority.name().toLowerCase())
+          .register(this.meterRegistry));
+    }
+    Gauge.builder("plugin.concurrency.limit", this, limiter -> (int) limiter.limit)
+        .description("Current adaptive concurrency limit for plugin calls")
+        .register(this.meterRegistry);
+    Gauge.builder("plugin.concurrency.inflight", this.inFlight, AtomicInteger::get)
+        .description("Plugin calls currently admitted")
+        .register(this.meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Admits a call if the in-flight count is below the priority's share of the limit. Every admitted call must be
+   * followed by exactly one {@link #release}.
+   */
+  public boolean tryAcquire(Priority priority) {
+    int allowed = Math.max(1, (int) (this.limit * priority.share));
+    while (true) {
+      int current = this.inFlight.get();
+      if (current >= allowed) {
+        this.shed.get(priority).increment();
+        return false;
+      }
+      if (this.inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void release(long latencyNanos, boolean failed) {
+    this.inFlight.decrementAndGet();
+    long target = this.latencyTarget.toNanos();
+    synchronized (this) {
+      if (failed || latencyNanos > target) {
+        long now = this.clock.getAsLong();
+        // One cut per target interval, so a burst of slow calls that started together counts once
+        if (now - this.lastDecrease >= target) {
+          this.limit = Math.max(this.minLimit, this.limit * this.backoff);
+          this.lastDecrease = now;
+        }
+      } else {
+        this.limit = Math.min(this.maxLimit, this.limit + 1.0 / this.limit);
+      }
+    }
+  }
+
+  int limit() {
+    return (int) this.limit;
+  }
+
+  int inFlight() {
+    return this.inFlight.get();
+  }
+}
@@ -0,0 +1,224 @@
+package com.remotefalcon.plugins.api.filters;
+
+import com.remotefalcon.plugins.api.model.ThrottledShow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-show token buckets for plugin calls (rate.limit.enabled), checked by {@link ShowTokenFilter} before the show is
+ * read. Each endpoint class has its own rate and burst. Buckets are kept as GCRA arrival times, one long per endpoint
+ * class, updated by compare-and-set, so a check never locks. At most rate.limit.max-shows shows are tracked; when full,
+ * shows whose buckets have refilled are dropped, and shows that still do not fit are not limited.
+ */
+@ApplicationScoped
+public class ShowRateLimiter {
+
+  public enum EndpointClass {
+    // FPP polls these every few seconds
+    POLL(Set.of("nextPlaylistInQueue", "highestVotedPlaylist", "viewerControlMode", "remotePreferences",
+        "pluginState")),
+    SYNC(Set.of("syncPlaylists")),
+    UPDATE(Set.of());
+
+    private final Set<String> paths;
+
+    EndpointClass(Set<String> paths) {
+      this.paths = paths;
+    }
+
+    public static EndpointClass of(String path) {
+      String endpoint = path.substring(path.lastIndexOf('/') + 1);
+      for (EndpointClass endpointClass : values()) {
+        if (endpointClass.paths.contains(endpoint)) {
+          return endpointClass;
+        }
+      }
+      return UPDATE;
+    }
+  }
+
+  // Slots per show: one arrival time per endpoint class, then the throttled-call count and the last throttle time
+  private static final int THROTTLED = EndpointClass.values().length;
+  private static final int LAST_THROTTLED = THROTTLED + 1;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.max-shows")
+  int maxShows;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.poll.per-second")
+  double pollPerSecond;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.poll.burst")
+  int pollBurst;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.update.per-second")
+  double updatePerSecond;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.update.burst")
+  int updateBurst;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.sync.per-second")
+  double syncPerSecond;
+
+  @Inject
+  @ConfigProperty(name = "rate.limit.sync.burst")
+  int syncBurst;
+
+  LongSupplier clock = System::nanoTime;
+
+  private final Map<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+  private final AtomicBoolean sweeping = new AtomicBoolean();
+  private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+  private final Map<EndpointClass, Counter> throttled = new EnumMap<>(EndpointClass.class);
+
+  // Nanoseconds between calls at the sustained rate, and how far ahead of now the bucket may run (the burst)
+  private record Limit(long interval, long tolerance) {
+
+    static Limit of(double perSecond, int burst) {
+      long interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+      return new Limit(interval, interval * Math.max(1, burst));
+    }
+  }
+
+  @PostConstruct
+  void init() {
+    this.limits.put(EndpointClass.POLL, Limit.of(this.pollPerSecond, this.pollBurst));
+    this.limits.put(EndpointClass.UPDATE, Limit.of(this.updatePerSecond, this.updateBurst));
+    this.limits.put(EndpointClass.SYNC, Limit.of(this.syncPerSecond, this.syncBurst));
+    for (EndpointClass endpointClass : EndpointClass.values()) {
+      this.throttled.put(endpointClass, Counter.builder("show.ratelimit.throttled")
+          .description("Plugin calls rejected with 429 by the per-show rate limit")
+          .tag("endpoint", endpointClass.name().toLowerCase())
+          .register(this.meterRegistry));
+    }
+    Gauge.builder("show.ratelimit.tracked", this.buckets, Map::size)
+        .description("Shows with a rate limit bucket")
+        .register(this.meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Takes one call from the show's bucket for the endpoint class. Empty if the call is allowed, otherwise the
+   * nanoseconds until it would be.
+   */
+  public OptionalLong acquire(String showToken, EndpointClass endpointClass) {
+    AtomicLongArray bucket = this.bucket(showToken);
+    if (bucket == null) {
+      return OptionalLong.empty();
+    }
+    Limit limit = this.limits.get(endpointClass);
+    int slot = endpointClass.ordinal();
+    while (true) {
+      long now = this.clock.getAsLong();
+      long arrival = bucket.get(slot);
+      // nanoTime values are only comparable by difference
+      long next = (arrival - now > 0 ? arrival : now) + limit.interval();
+      if (next - now > limit.tolerance()) {
+        bucket.incrementAndGet(THROTTLED);
+        bucket.set(LAST_THROTTLED, System.currentTimeMillis());
+        this.throttled.get(endpointClass).increment();
+        return OptionalLong.of(next - limit.tolerance() - now);
+      }
+      if (bucket.compareAndSet(slot, arrival, next)) {
+        return OptionalLong.empty();
+      }
+    }
+  }
+
+  /**
+   * Shows with the most throttled calls, tokens masked.
+   */
+  public List<ThrottledShow> topOffenders(int limit) {
+    return this.buckets.entrySet().stream()
+        .filter(entry -> entry.getValue().get(THROTTLED) > 0)
+        .sorted(Comparator.comparingLong((Map.Entry<String, AtomicLongArray> entry) -> entry.getValue().get(THROTTLED)).reversed())
+        .limit(Math.max(0, limit))
+        .map(entry -> ThrottledShow.builder()
+            .showToken(mask(entry.getKey()))
+            .throttled(entry.getValue().get(THROTTLED))
+            .lastThrottled(Instant.ofEpochMilli(entry.getValue().get(LAST_THROTTLED)))
+            .build())
+        .toList();
+  }
+
+  static String mask(String showToken) {
+    return showToken.length() <= 8 ? "****" : showToken.substring(0, 4) + "****" + showToken.substring(showToken.length() - 2);
+  }
+
+  private AtomicLongArray bucket(String showToken) {
+    AtomicLongArray bucket = this.buckets.get(showToken);
+    if (bucket != null) {
+      return bucket;
+    }
+    if (this.buckets.size() >= this.maxShows) {
+      this.sweep();
+      if (this.buckets.size() >= this.maxShows) {
+        return null;
+      }
+    }
+    return this.buckets.computeIfAbsent(showToken, token -> this.newBucket());
+  }
+
+  private AtomicLongArray newBucket() {
+    // Start every bucket full: arrival times at or before now allow a full burst
+    AtomicLongArray bucket = new AtomicLongArray(LAST_THROTTLED + 1);
+    long now = this.clock.getAsLong();
+    for (int slot = 0; slot < THROTTLED; slot++) {
+      bucket.set(slot, now);
+    }
+    return bucket;
+  }
+
+  // Drops shows whose buckets have all refilled; a show returning later just starts with a full bucket again
+  private void sweep() {
+    if (!this.sweeping.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      long now = this.clock.getAsLong();
+      this.buckets.entrySet().removeIf(entry -> {
+        for (int slot = 0; slot < THROTTLED; slot++) {
+          if (entry.getValue().get(slot) - now > 0) {
+            return false;
+          }
+        }
+        return true;
+      });
+    } finally {
+      this.sweeping.set(false);
+    }
+  }
+}
@@ -3,31 +3,43 @@ package com.remotefalcon.plugins.api.filters;
 import com.remotefalcon.library.quarkus.entity.Show;
 import com.remotefalcon.plugins.api.context.ShowContext;
 import com.remotefalcon.plugins.api.repository.ShowRepository;
-import jakarta.enterprise.context.RequestScoped;
+import com.remotefalcon.plugins.api.service.ShowLockManager;
+import com.remotefalcon.plugins.api.service.StateTags;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
 
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
 
 @Provider
-@RequestScoped
-public class ShowTokenFilter implements ContainerRequestFilter {
+public class ShowTokenFilter implements ContainerRequestFilter, ContainerResponseFilter {
 
   @Inject
   ShowRepository showRepository;
 
   @Inject
-  ShowContext showContext;
+  ShowLockManager showLockManager;
+
+  @Inject
+  ShowRateLimiter showRateLimiter;
+
+  @Inject
+  StateTags stateTags;
 
 
   @Override
   public void filter(ContainerRequestContext requestContext) {
-    // Skip authentication for health check endpoint
+    // Skip show authentication for the health check and the admin endpoints, which AdminTokenFilter guards
     String path = requestContext.getUriInfo().getPath();
-    if (path.endsWith("/actuator/health")) {
+    if (path.endsWith("/actuator/health") || AdminTokenFilter.isAdminPath(path)) {
       return;
     }
 
@@ -45,7 +57,42 @@ public class ShowTokenFilter implements ContainerRequestFilter {
       return;
     }
 
-    Optional<Show> showOptional = this.showRepository.findByShowToken(showToken);
+    if (this.showRateLimiter.isEnabled()) {
+      OptionalLong retryAfter = this.showRateLimiter.acquire(showToken, ShowRateLimiter.EndpointClass.of(path));
+      if (retryAfter.isPresent()) {
+        requestContext.abortWith(
+            Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfter.getAsLong() + 999_999_999L)))
+                .entity("Too many requests for this show")
+                .build()
+        );
+        return;
+      }
+    }
+
+    ShowContext showContext = new ShowContext();
+    showContext.setShowToken(showToken);
+    showContext.attachTo(requestContext);
+    if (path.endsWith("/pluginState")) {
+      // Authenticated by its own minimal projection, which answers 404 for an unknown token
+      return;
+    }
+
+    if (this.stateTags.isTagged(path)) {
+      // Read before the show, so the tag is never newer than the body it goes out with
+      Optional<EntityTag> stateTag = this.stateTags.current(path, showToken);
+      if (stateTag.isPresent()) {
+        if (StateTags.matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH), stateTag.get())) {
+          requestContext.abortWith(Response.notModified(stateTag.get()).build());
+          return;
+        }
+        showContext.setStateTag(stateTag.get());
+      }
+    }
+
+    // Stamp before reading so a locked write that lands during the read marks this copy stale
+    long lockStamp = this.showLockManager.stamp(showToken);
+    Optional<Show> showOptional = this.showRepository.findViewByShowToken(showToken);
     if (showOptional.isEmpty()) {
       requestContext.abortWith(
           Response.status(Response.Status.NOT_FOUND)
@@ -57,6 +104,16 @@ public class ShowTokenFilter implements ContainerRequestFilter {
 
     Show show = showOptional.get();
     showContext.setShow(show);
+    showContext.setLockStamp(lockStamp);
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    ShowContext showContext = ShowContext.of(requestContext);
+    EntityTag stateTag = showContext != null ? showContext.getStateTag() : null;
+    if (stateTag != null && responseContext.getStatus() == Response.Status.OK.getStatusCode()) {
+      responseContext.getHeaders().putSingle(HttpHeaders.ETAG, stateTag);
+    }
   }
 
 
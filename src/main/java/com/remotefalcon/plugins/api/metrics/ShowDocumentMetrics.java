@@ -0,0 +1,197 @@
+package com.remotefalcon.plugins.api.metrics;
+
+import com.remotefalcon.plugins.api.model.ShowDocumentSize;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.RawBsonDocument;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Records the size of every Show document fetched by the filter, tracks the largest shows seen by this pod and
+ * warns when a document grows past the configured thresholds (well before Mongo's 16 MB document limit). Calls only
+ * read a projection of the show, so the full document size that limit applies to is measured separately with
+ * {@code $bsonSize}, at most once per show per show.document.measure-interval.
+ */
+@ApplicationScoped
+public class ShowDocumentMetrics {
+
+  private static final Logger LOG = Logger.getLogger(ShowDocumentMetrics.class);
+
+  private static final int MAX_WARNED_SHOWS = 10_000;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "show.document.warn-bytes")
+  int warnBytes;
+
+  @Inject
+  @ConfigProperty(name = "show.document.warn-array-length")
+  int warnArrayLength;
+
+  @Inject
+  @ConfigProperty(name = "show.document.warn-interval")
+  Duration warnInterval;
+
+  @Inject
+  @ConfigProperty(name = "show.document.top-n")
+  int topN;
+
+  @Inject
+  @ConfigProperty(name = "show.document.measure-interval")
+  Duration measureInterval;
+
+  private final Map<String, ShowDocumentSize> largestShows = new ConcurrentHashMap<>();
+  private final Map<String, Instant> lastWarned = new ConcurrentHashMap<>();
+  private final Map<String, FullSize> fullSizes = new ConcurrentHashMap<>();
+
+  private record FullSize(int bytes, Instant measuredAt) {
+  }
+
+  private DistributionSummary documentSize;
+  private DistributionSummary projectedSize;
+  private DistributionSummary sequencesLength;
+  private DistributionSummary votesLength;
+  private DistributionSummary viewersVotedLength;
+  private DistributionSummary requestsLength;
+  private DistributionSummary psaSequencesLength;
+  private DistributionSummary votingWinLength;
+  private Counter oversizedDocuments;
+
+  @PostConstruct
+  void init() {
+    this.documentSize = DistributionSummary.builder("show.document.size")
+        .description("Full BSON size of Show documents, measured with $bsonSize")
+        .baseUnit("bytes")
+        .publishPercentileHistogram()
+        .register(this.meterRegistry);
+    this.projectedSize = DistributionSummary.builder("show.document.projected.size")
+        .description("BSON size of the Show projection fetched by showToken")
+        .baseUnit("bytes")
+        .publishPercentileHistogram()
+        .register(this.meterRegistry);
+    this.sequencesLength = this.arrayLength("sequences");
+    this.votesLength = this.arrayLength("votes");
+    this.viewersVotedLength = this.arrayLength("votes.viewersVoted");
+    this.requestsLength = this.arrayLength("requests");
+    this.psaSequencesLength = this.arrayLength("psaSequences");
+    this.votingWinLength = this.arrayLength("stats.votingWin");
+    this.oversizedDocuments = Counter.builder("show.document.oversized")
+        .description("Show documents fetched above the configured size or array length thresholds")
+        .register(this.meterRegistry);
+  }
+
+  private DistributionSummary arrayLength(String array) {
+    return DistributionSummary.builder("show.document.array.length")
+        .description("Number of elements in a Show document array")
+        .tag("array", array)
+        .publishPercentileHistogram()
+        .register(this.meterRegistry);
+  }
+
+  /**
+   * Records a fetched projection. {@code fullSize} reads the full document size from Mongo; it is only called when the
+   * show's last measurement is older than the measure interval.
+   */
+  public ShowDocumentStats record(String showToken, RawBsonDocument document, IntSupplier fullSize) {
+    ShowDocumentStats stats = ShowDocumentStats.of(document);
+    int bytes = this.fullSize(showToken, fullSize);
+    this.projectedSize.record(stats.projectedBytes());
+    this.sequencesLength.record(stats.sequences());
+    this.votesLength.record(stats.votes());
+    this.viewersVotedLength.record(stats.viewersVoted());
+    this.requestsLength.record(stats.requests());
+    this.psaSequencesLength.record(stats.psaSequences());
+    this.votingWinLength.record(stats.votingWins());
+
+    this.trackLargest(showToken, stats, bytes);
+    if (bytes >= this.warnBytes || stats.largestArray() >= this.warnArrayLength) {
+      this.oversizedDocuments.increment();
+      this.warn(showToken, stats, bytes);
+    }
+    return stats;
+  }
+
+  private int fullSize(String showToken, IntSupplier fullSize) {
+    Instant now = Instant.now();
+    FullSize last = this.fullSizes.get(showToken);
+    if (last != null && last.measuredAt().plus(this.measureInterval).isAfter(now)) {
+      return last.bytes();
+    }
+    int bytes;
+    try {
+      bytes = fullSize.getAsInt();
+    } catch (RuntimeException e) {
+      // Telemetry must not fail the call; keep the last measurement and try again next interval
+      LOG.debugf(e, "Failed to measure the Show document size for showToken=%s", showToken);
+      bytes = last != null ? last.bytes() : 0;
+    }
+    if (this.fullSizes.size() >= MAX_WARNED_SHOWS) {
+      this.fullSizes.clear();
+    }
+    this.fullSizes.put(showToken, new FullSize(bytes, now));
+    this.documentSize.record(bytes);
+    return bytes;
+  }
+
+  public List<ShowDocumentSize> largestShows(int limit) {
+    return this.largestShows.values().stream()
+        .sorted(Comparator.comparingInt(ShowDocumentSize::getBytes).reversed())
+        .limit(Math.max(0, Math.min(limit, this.topN)))
+        .toList();
+  }
+
+  private void trackLargest(String showToken, ShowDocumentStats stats, int bytes) {
+    this.largestShows.put(showToken, ShowDocumentSize.builder()
+        .showSubdomain(stats.showSubdomain())
+        .bytes(bytes)
+        .projectedBytes(stats.projectedBytes())
+        .sequences(stats.sequences())
+        .votes(stats.votes())
+        .viewersVoted(stats.viewersVoted())
+        .requests(stats.requests())
+        .psaSequences(stats.psaSequences())
+        .votingWins(stats.votingWins())
+        .lastSeen(Instant.now())
+        .build());
+    // Keep some headroom over top-n so a show shrinking does not immediately hide the next largest one
+    if (this.largestShows.size() > this.topN * 2) {
+      this.largestShows.entrySet().stream()
+          .sorted(Comparator.comparingInt(entry -> entry.getValue().getBytes()))
+          .limit(this.largestShows.size() - this.topN)
+          .map(Map.Entry::getKey)
+          .toList()
+          .forEach(this.largestShows::remove);
+    }
+  }
+
+  private void warn(String showToken, ShowDocumentStats stats, int bytes) {
+    Instant now = Instant.now();
+    Instant previous = this.lastWarned.get(showToken);
+    if (previous != null && previous.plus(this.warnInterval).isAfter(now)) {
+      return;
+    }
+    if (this.lastWarned.size() >= MAX_WARNED_SHOWS) {
+      this.lastWarned.clear();
+    }
+    this.lastWarned.put(showToken, now);
+    LOG.warnf("Show document for showSubdomain=%s is %d bytes (warn at %d): sequences=%d, votes=%d, viewersVoted=%d, "
+            + "requests=%d, psaSequences=%d, votingWin=%d (warn at %d)",
+        stats.showSubdomain(), bytes, this.warnBytes, stats.sequences(), stats.votes(), stats.viewersVoted(),
+        stats.requests(), stats.psaSequences(), stats.votingWins(), this.warnArrayLength);
+  }
+}
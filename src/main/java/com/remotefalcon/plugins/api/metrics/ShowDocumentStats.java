@@ -0,0 +1,109 @@
+package com.remotefalcon.plugins.api.metrics;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+
+/**
+ * Size and array lengths of a fetched Show document, read straight from the raw BSON bytes
+ * so nothing is decoded just to measure it. The document is the projected one the service reads, so
+ * {@code projectedBytes} leaves out pages and the stats other than votingWin.
+ */
+public record ShowDocumentStats(
+    String showSubdomain,
+    int projectedBytes,
+    int sequences,
+    int votes,
+    int viewersVoted,
+    int requests,
+    int psaSequences,
+    int votingWins) {
+
+  public static ShowDocumentStats of(RawBsonDocument document) {
+    String showSubdomain = null;
+    int sequences = 0;
+    int votes = 0;
+    int viewersVoted = 0;
+    int requests = 0;
+    int psaSequences = 0;
+    int votingWins = 0;
+
+    // RawBsonDocument inherits asBsonReader() from BsonDocument, which materializes every value first
+    try (BsonReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+      reader.readStartDocument();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+        switch (reader.readName()) {
+          case "showSubdomain" -> showSubdomain = readString(reader);
+          case "sequences" -> sequences = countArray(reader);
+          case "requests" -> requests = countArray(reader);
+          case "psaSequences" -> psaSequences = countArray(reader);
+          case "votes" -> {
+            if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+              reader.skipValue();
+              break;
+            }
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+              votes++;
+              viewersVoted += countNestedArray(reader, "viewersVoted");
+            }
+            reader.readEndArray();
+          }
+          case "stats" -> votingWins = countNestedArray(reader, "votingWin");
+          default -> reader.skipValue();
+        }
+      }
+      reader.readEndDocument();
+    }
+
+    return new ShowDocumentStats(showSubdomain, document.getByteBuffer().remaining(), sequences, votes, viewersVoted,
+        requests, psaSequences, votingWins);
+  }
+
+  public int largestArray() {
+    return Math.max(Math.max(Math.max(sequences, votes), Math.max(viewersVoted, requests)),
+        Math.max(psaSequences, votingWins));
+  }
+
+  private static String readString(BsonReader reader) {
+    if (reader.getCurrentBsonType() != BsonType.STRING) {
+      reader.skipValue();
+      return null;
+    }
+    return reader.readString();
+  }
+
+  private static int countArray(BsonReader reader) {
+    if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+      reader.skipValue();
+      return 0;
+    }
+    int count = 0;
+    reader.readStartArray();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      reader.skipValue();
+      count++;
+    }
+    reader.readEndArray();
+    return count;
+  }
+
+  private static int countNestedArray(BsonReader reader, String field) {
+    if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+      reader.skipValue();
+      return 0;
+    }
+    int count = 0;
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      if (field.equals(reader.readName())) {
+        count = countArray(reader);
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return count;
+  }
+}
@@ -1,5 +1,6 @@
 package com.remotefalcon.plugins.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +13,7 @@ import lombok.NoArgsConstructor;
 public class HighestVotedPlaylistResponse {
   private String winningPlaylist;
   private Integer playlistIndex;
+  // Recommended seconds until the next poll; omitted unless poll.hint.enabled
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer nextPollSeconds;
 }
@@ -1,5 +1,6 @@
 package com.remotefalcon.plugins.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,4 +17,7 @@ public class PluginResponse {
   private String viewerControlMode;
   private Boolean viewerControlEnabled;
   private Boolean managedPsaEnabled;
+  // Recommended seconds until the next poll; omitted unless poll.hint.enabled
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer nextPollSeconds;
 }
@@ -0,0 +1,25 @@
+package com.remotefalcon.plugins.api.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// pluginState returns it inside a Response for its ETag; the build only generates
+// serializers for declared response types, so this one is still bound by reflection, also in the native image
+@RegisterForReflection
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PluginState {
+  private String viewerControlMode;
+  private Boolean viewerControlEnabled;
+  private Boolean managedPsaEnabled;
+  private long queueDepth;
+  // Sequence name of the next request
+  private String queueHead;
+  // Sequence or group name with the most votes, earliest vote first on a tie
+  private String voteLeader;
+}
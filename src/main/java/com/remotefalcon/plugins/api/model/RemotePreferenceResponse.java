@@ -1,10 +1,14 @@
 package com.remotefalcon.plugins.api.model;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// remotePreferences returns it as Object, next to the cached byte[] bodies; the build only generates
+// serializers for declared response types, so this one is still bound by reflection, also in the native image
+@RegisterForReflection
 @Builder
 @Data
 @AllArgsConstructor
@@ -0,0 +1,27 @@
+package com.remotefalcon.plugins.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowDocumentSize {
+  private String showSubdomain;
+  // Full document size, as Mongo's 16 MB limit counts it
+  private int bytes;
+  // Size of the projection the service reads on every call
+  private int projectedBytes;
+  private int sequences;
+  private int votes;
+  private int viewersVoted;
+  private int requests;
+  private int psaSequences;
+  private int votingWins;
+  private Instant lastSeen;
+}
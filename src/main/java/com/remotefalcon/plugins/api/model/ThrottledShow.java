@@ -0,0 +1,19 @@
+package com.remotefalcon.plugins.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThrottledShow {
+  // Masked, so the list can be shared without leaking tokens
+  private String showToken;
+  private long throttled;
+  private Instant lastThrottled;
+}
@@ -0,0 +1,99 @@
+package com.remotefalcon.plugins.api.providers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import com.remotefalcon.plugins.api.model.SyncPlaylistRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes the plugin model as CBOR (RFC 8949) for plugins that send {@code Content-Type} or {@code Accept}
+ * application/cbor. It uses a copy of the application's ObjectMapper, so the same modules and serializers apply and
+ * only the encoding differs. JSON stays the default for everything else. syncPlaylists bodies are still streamed by
+ * {@link SyncPlaylistRequestReader}, which reads CBOR too.
+ */
+@Provider
+@Consumes(CborMessageBodyHandler.APPLICATION_CBOR)
+@Produces(CborMessageBodyHandler.APPLICATION_CBOR)
+public class CborMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+  public static final String APPLICATION_CBOR = "application/cbor";
+  public static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  private ObjectMapper cborMapper;
+
+  @PostConstruct
+  void init() {
+    this.cborMapper = this.objectMapper.copyWith(new CBORFactory())
+        .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false)
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+  }
+
+  public static boolean isCbor(MediaType mediaType) {
+    return mediaType != null
+        && APPLICATION_CBOR_TYPE.getType().equalsIgnoreCase(mediaType.getType())
+        && APPLICATION_CBOR_TYPE.getSubtype().equalsIgnoreCase(mediaType.getSubtype());
+  }
+
+  /**
+   * Whether the caller's most preferred response type is CBOR. Without an Accept header the answer is JSON.
+   */
+  public static boolean prefersCbor(HttpHeaders headers) {
+    return !headers.getAcceptableMediaTypes().isEmpty() && isCbor(headers.getAcceptableMediaTypes().getFirst());
+  }
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return isCbor(mediaType) && type != SyncPlaylistRequest.class;
+  }
+
+  @Override
+  public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                         MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+    try {
+      return this.cborMapper.readValue(entityStream, this.cborMapper.constructType(genericType));
+    } catch (JsonProcessingException e) {
+      throw new WebApplicationException(
+          Response.status(Response.Status.BAD_REQUEST)
+              .entity(PluginResponse.builder().message("Invalid CBOR request").build())
+              .type(MediaType.APPLICATION_JSON)
+              .build()
+      );
+    }
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    // byte[] bodies are already serialized, as JSON
+    return isCbor(mediaType) && type != byte[].class && type != String.class;
+  }
+
+  @Override
+  public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                      MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+    this.cborMapper.writeValue(entityStream, entity);
+  }
+}
@@ -0,0 +1,211 @@
+package com.remotefalcon.plugins.api.providers;
+
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * gzip for plugin bodies (compression.enabled). Requests sent with {@code Content-Encoding: gzip} are inflated before
+ * any reader sees them, and a body that inflates past compression.request.max-inflated-bytes is rejected with 413
+ * while it is being read, so a compression bomb never gets further than that. Other encodings get 415. Responses
+ * are gzipped for callers that accept it once they reach compression.response.threshold bytes; smaller ones are not
+ * worth the CPU and are sent as they are.
+ */
+@Provider
+public class GzipInterceptor implements ContainerRequestFilter, ReaderInterceptor, WriterInterceptor {
+
+  private static final Logger LOG = Logger.getLogger(GzipInterceptor.class);
+  private static final String GZIP = "gzip";
+  // Request property holding the caller's Accept-Encoding, which a writer interceptor cannot read from the request
+  static final String ACCEPT_ENCODING = GzipInterceptor.class.getName() + ".acceptEncoding";
+
+  @Inject
+  @ConfigProperty(name = "compression.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "compression.request.max-inflated-bytes")
+  long maxInflatedBytes;
+
+  @Inject
+  @ConfigProperty(name = "compression.response.threshold")
+  int responseThreshold;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    String acceptEncoding = requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+    if (this.enabled && acceptEncoding != null) {
+      requestContext.setProperty(ACCEPT_ENCODING, acceptEncoding);
+    }
+  }
+
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+    String encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    if (!this.enabled || encoding == null || encoding.isBlank() || encoding.trim().equalsIgnoreCase("identity")) {
+      return context.proceed();
+    }
+    if (!encoding.trim().equalsIgnoreCase(GZIP)) {
+      throw error(Response.Status.UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding " + encoding.trim());
+    }
+    context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+    try {
+      context.setInputStream(new InflatedLimitStream(new GZIPInputStream(context.getInputStream())));
+    } catch (ZipException | EOFException e) {
+      throw error(Response.Status.BAD_REQUEST, "Invalid gzip body");
+    }
+    try {
+      return context.proceed();
+    } catch (ZipException | EOFException e) {
+      throw error(Response.Status.BAD_REQUEST, "Invalid gzip body");
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    if (!this.enabled) {
+      context.proceed();
+      return;
+    }
+    MultivaluedMap<String, Object> headers = context.getHeaders();
+    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (!this.acceptsGzip(context) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      context.proceed();
+      return;
+    }
+    // Plugin responses are small, so buffer to learn the size before choosing the encoding
+    OutputStream out = context.getOutputStream();
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    context.setOutputStream(body);
+    context.proceed();
+    if (body.size() < this.responseThreshold) {
+      body.writeTo(out);
+      return;
+    }
+    headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+    headers.remove(HttpHeaders.CONTENT_LENGTH);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(out), 8192)) {
+      body.writeTo(gzip);
+    }
+  }
+
+  private boolean acceptsGzip(WriterInterceptorContext context) {
+    Object acceptEncoding = context.getProperty(ACCEPT_ENCODING);
+    return acceptEncoding instanceof String value && acceptsGzip(value);
+  }
+
+  /**
+   * Whether an Accept-Encoding value allows gzip, i.e. lists gzip or * without q=0.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+        continue;
+      }
+      boolean rejected = false;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim();
+        if (parameter.startsWith("q=")) {
+          try {
+            rejected = Double.parseDouble(parameter.substring(2)) <= 0;
+          } catch (NumberFormatException e) {
+            rejected = true;
+          }
+        }
+      }
+      if (!rejected) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static WebApplicationException error(Response.Status status, String message) {
+    return new WebApplicationException(
+        Response.status(status)
+            .entity(PluginResponse.builder().message(message).build())
+            .type(MediaType.APPLICATION_JSON)
+            .build()
+    );
+  }
+
+  private class InflatedLimitStream extends FilterInputStream {
+
+    private long bytesRead;
+
+    InflatedLimitStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value != -1) {
+        this.count(1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read > 0) {
+        this.count(read);
+      }
+      return read;
+    }
+
+    private void count(int read) {
+      this.bytesRead += read;
+      if (this.bytesRead > GzipInterceptor.this.maxInflatedBytes) {
+        LOG.warnf("gzip request body rejected: inflates past maxInflatedBytes=%d", GzipInterceptor.this.maxInflatedBytes);
+        throw error(Response.Status.REQUEST_ENTITY_TOO_LARGE,
+            "Request body inflates past " + GzipInterceptor.this.maxInflatedBytes + " bytes");
+      }
+    }
+  }
+
+  // The container owns the response stream; finishing the gzip trailer must not close it
+  private static class NonClosingOutputStream extends FilterOutputStream {
+
+    NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+      this.out.write(buffer, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.flush();
+    }
+  }
+}
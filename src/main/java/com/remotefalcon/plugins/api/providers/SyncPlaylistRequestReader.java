@@ -0,0 +1,206 @@
+package com.remotefalcon.plugins.api.providers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import com.remotefalcon.plugins.api.model.SyncPlaylistDetails;
+import com.remotefalcon.plugins.api.model.SyncPlaylistRequest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.Provider;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams the syncPlaylists body instead of binding it through Jackson databind, so an oversized payload is rejected
+ * as soon as it crosses {@code sync.max-bytes} or {@code sequence.limit} rather than after every
+ * {@link SyncPlaylistDetails} has been materialized. Playlist names are deduplicated case-insensitively (first one
+ * wins) in the same pass, which is how the service already compares them. CBOR bodies are streamed the same way.
+ */
+@Provider
+@Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+public class SyncPlaylistRequestReader implements MessageBodyReader<SyncPlaylistRequest> {
+
+  private static final Logger LOG = Logger.getLogger(SyncPlaylistRequestReader.class);
+  private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  @ConfigProperty(name = "sequence.limit")
+  int sequenceLimit;
+
+  @Inject
+  @ConfigProperty(name = "sync.max-bytes")
+  long maxBytes;
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return type == SyncPlaylistRequest.class;
+  }
+
+  @Override
+  public SyncPlaylistRequest readFrom(Class<SyncPlaylistRequest> type, Type genericType, Annotation[] annotations,
+                                      MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
+                                      InputStream entityStream) throws IOException {
+    JsonFactory factory = CborMessageBodyHandler.isCbor(mediaType) ? CBOR_FACTORY : this.objectMapper.getFactory();
+    try (JsonParser parser = factory.createParser(new LimitedInputStream(entityStream))) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw badRequest("Invalid syncPlaylists request");
+      }
+      List<SyncPlaylistDetails> playlists = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken token = parser.nextToken();
+        if ("playlists".equals(field) && token == JsonToken.START_ARRAY) {
+          playlists = this.readPlaylists(parser);
+        } else if ("playlists".equals(field) && token != JsonToken.VALUE_NULL) {
+          throw badRequest("Invalid syncPlaylists request");
+        } else {
+          parser.skipChildren();
+        }
+      }
+      return SyncPlaylistRequest.builder().playlists(playlists).build();
+    } catch (JsonProcessingException e) {
+      throw badRequest("Invalid syncPlaylists request");
+    }
+  }
+
+  private List<SyncPlaylistDetails> readPlaylists(JsonParser parser) throws IOException {
+    List<SyncPlaylistDetails> playlists = new ArrayList<>();
+    Set<String> normalizedNames = new HashSet<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.currentToken() == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw badRequest("Invalid syncPlaylists request");
+      }
+      SyncPlaylistDetails playlist = readPlaylist(parser);
+      String normalizedName = StringUtils.lowerCase(playlist.getPlaylistName());
+      if (StringUtils.isEmpty(normalizedName) || !normalizedNames.add(normalizedName)) {
+        continue;
+      }
+      if (normalizedNames.size() > this.sequenceLimit) {
+        LOG.warnf("syncPlaylists rejected while parsing: requestPlaylists exceeds limit=%d", this.sequenceLimit);
+        throw badRequest("Cannot sync more than " + this.sequenceLimit + " sequences");
+      }
+      playlists.add(playlist);
+    }
+    return playlists;
+  }
+
+  private static SyncPlaylistDetails readPlaylist(JsonParser parser) throws IOException {
+    SyncPlaylistDetails playlist = new SyncPlaylistDetails();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      switch (field) {
+        case "playlistName" -> playlist.setPlaylistName(readString(parser));
+        case "playlistDuration" -> playlist.setPlaylistDuration(readInteger(parser));
+        case "playlistIndex" -> playlist.setPlaylistIndex(readInteger(parser));
+        case "playlistType" -> playlist.setPlaylistType(readString(parser));
+        case "mediaTitle" -> playlist.setMediaTitle(readString(parser));
+        case "mediaArtist" -> playlist.setMediaArtist(readString(parser));
+        case "mediaAlbumUrl" -> playlist.setMediaAlbumUrl(readString(parser));
+        default -> parser.skipChildren();
+      }
+    }
+    return playlist;
+  }
+
+  private static String readString(JsonParser parser) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      throw badRequest("Invalid syncPlaylists request");
+    }
+    return parser.getText();
+  }
+
+  private static Integer readInteger(JsonParser parser) throws IOException {
+    return switch (parser.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getValueAsInt();
+      case VALUE_STRING -> {
+        String text = parser.getText().trim();
+        if (text.isEmpty()) {
+          yield null;
+        }
+        try {
+          yield Integer.valueOf(text);
+        } catch (NumberFormatException e) {
+          throw badRequest("Invalid syncPlaylists request");
+        }
+      }
+      default -> throw badRequest("Invalid syncPlaylists request");
+    };
+  }
+
+  private static WebApplicationException badRequest(String message) {
+    return new WebApplicationException(
+        Response.status(Response.Status.BAD_REQUEST)
+            .entity(PluginResponse.builder().message(message).build())
+            .type(MediaType.APPLICATION_JSON)
+            .build()
+    );
+  }
+
+  private class LimitedInputStream extends FilterInputStream {
+
+    private long bytesRead;
+
+    LimitedInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value != -1) {
+        this.count(1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read > 0) {
+        this.count(read);
+      }
+      return read;
+    }
+
+    private void count(int read) {
+      this.bytesRead += read;
+      if (this.bytesRead > SyncPlaylistRequestReader.this.maxBytes) {
+        LOG.warnf("syncPlaylists rejected while parsing: body exceeds maxBytes=%d", SyncPlaylistRequestReader.this.maxBytes);
+        throw badRequest("Cannot sync more than " + SyncPlaylistRequestReader.this.maxBytes + " bytes");
+      }
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.remotefalcon.plugins.api.repository;
+
+import io.quarkus.mongodb.panache.common.MongoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * When a show's sequence (by lower-cased name) was first seen inactive, for the retention window of sequence compaction.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@MongoEntity(collection = "inactiveSequences")
+public class InactiveSequence {
+  private ObjectId id;
+  private String showToken;
+  private String name;
+  private Instant inactiveSince;
+}
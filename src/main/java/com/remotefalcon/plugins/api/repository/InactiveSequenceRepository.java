@@ -0,0 +1,86 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.quarkus.mongodb.panache.PanacheMongoRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * When each of a show's sequences went inactive, keyed by (showToken, lower-cased name). Sequence itself carries no
+ * timestamp, so this is the retention clock for {@code SequenceCompactor}.
+ */
+@ApplicationScoped
+public class InactiveSequenceRepository implements PanacheMongoRepository<InactiveSequence> {
+
+  @Inject
+  @ConfigProperty(name = "sequence.compaction.enabled")
+  boolean compactionEnabled;
+
+  @Inject
+  @ConfigProperty(name = "sequence.compaction.inline")
+  boolean inlineCompaction;
+
+  void onStart(@Observes StartupEvent event) {
+    // Only tracked while either form of compaction is on
+    if (!this.compactionEnabled && !this.inlineCompaction) {
+      return;
+    }
+    mongoCollection().createIndex(Indexes.ascending("showToken", "name"), new IndexOptions().unique(true));
+  }
+
+  /**
+   * Starts the retention clock for newly inactive sequences, keeping the original time for ones already tracked, and
+   * stops it for sequences that are active again. Names are lower-cased.
+   */
+  public void track(String showToken, Collection<String> inactiveNames, Collection<String> activeNames) {
+    List<WriteModel<InactiveSequence>> writes = new ArrayList<>();
+    Instant now = Instant.now();
+    for (String name : inactiveNames) {
+      writes.add(new UpdateOneModel<>(
+          Filters.and(Filters.eq("showToken", showToken), Filters.eq("name", name)),
+          Updates.setOnInsert("inactiveSince", now),
+          new UpdateOptions().upsert(true)));
+    }
+    if (!activeNames.isEmpty()) {
+      writes.add(new DeleteManyModel<>(Filters.and(Filters.eq("showToken", showToken), Filters.in("name", activeNames))));
+    }
+    if (!writes.isEmpty()) {
+      mongoCollection().bulkWrite(writes);
+    }
+  }
+
+  /**
+   * Lower-cased names of the show's sequences that have been inactive since before {@code cutoff}.
+   */
+  public Set<String> inactiveBefore(String showToken, Instant cutoff) {
+    Set<String> names = new HashSet<>();
+    mongoCollection().find(Filters.and(Filters.eq("showToken", showToken), Filters.lt("inactiveSince", cutoff)))
+        .projection(Projections.include("name"))
+        .forEach(inactiveSequence -> names.add(inactiveSequence.getName()));
+    return names;
+  }
+
+  public void forget(String showToken, Collection<String> names) {
+    if (!names.isEmpty()) {
+      mongoCollection().deleteMany(Filters.and(Filters.eq("showToken", showToken), Filters.in("name", names)));
+    }
+  }
+}
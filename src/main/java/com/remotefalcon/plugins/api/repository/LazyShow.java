@@ -0,0 +1,205 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.remotefalcon.library.models.*;
+import com.remotefalcon.library.quarkus.entity.Show;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.bson.*;
+import org.bson.codecs.BsonValueCodec;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Show backed by the raw BSON returned from Mongo. Scalar fields and preferences are decoded up front, while the large
+ * arrays (and stats) are decoded only the first time they are read, so endpoints that only look at preferences never
+ * allocate a single Sequence, Vote or Request. Once decoded, fields behave as on any Show: the service mutates them in
+ * memory, and a setter replaces the lazily decoded value.
+ * <p>
+ * Not meant to be persisted through Panache: Panache resolves the collection from the runtime class, so write
+ * through {@code Show.mongoCollection()} updates as the service already does.
+ * <p>
+ * The eagerly decoded fields are copied from a decoded Show by reflection, so the copy keeps up with fields added to
+ * the library's Show; Show is registered for reflection so this also works in the native image.
+ */
+@RegisterForReflection(targets = Show.class)
+public class LazyShow extends Show {
+
+  private static final Set<String> LAZY_FIELDS = Set.of(
+      "sequences", "sequenceGroups", "psaSequences", "requests", "votes", "stats");
+  private static final BsonValueCodec BSON_VALUE_CODEC = new BsonValueCodec();
+  private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+  private static final List<Field> SHOW_FIELDS = Arrays.stream(Show.class.getDeclaredFields())
+      .filter(field -> !Modifier.isStatic(field.getModifiers()))
+      .peek(field -> field.setAccessible(true))
+      .toList();
+
+  private final transient RawBsonDocument document;
+  private final transient CodecRegistry codecRegistry;
+
+  private transient boolean sequencesDecoded;
+  private transient boolean sequenceGroupsDecoded;
+  private transient boolean psaSequencesDecoded;
+  private transient boolean requestsDecoded;
+  private transient boolean votesDecoded;
+  private transient boolean statsDecoded;
+
+  private LazyShow(RawBsonDocument document, CodecRegistry codecRegistry) {
+    this.document = document;
+    this.codecRegistry = codecRegistry;
+  }
+
+  public static LazyShow of(RawBsonDocument document, CodecRegistry codecRegistry) {
+    LazyShow view = new LazyShow(document, codecRegistry);
+    Show eager = codecRegistry.get(Show.class).decode(new BsonDocumentReader(eagerFields(document)), DECODER_CONTEXT);
+    view.copyFrom(eager);
+    return view;
+  }
+
+  private static BsonDocument eagerFields(RawBsonDocument document) {
+    BsonDocument eagerFields = new BsonDocument();
+    try (BsonReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+      reader.readStartDocument();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+        String name = reader.readName();
+        if (LAZY_FIELDS.contains(name)) {
+          reader.skipValue();
+        } else {
+          eagerFields.put(name, BSON_VALUE_CODEC.decode(reader, DECODER_CONTEXT));
+        }
+      }
+      reader.readEndDocument();
+    }
+    return eagerFields;
+  }
+
+  private void copyFrom(Show eager) {
+    this.id = eager.id;
+    try {
+      for (Field field : SHOW_FIELDS) {
+        field.set(this, field.get(eager));
+      }
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Unable to copy decoded Show fields", e);
+    }
+  }
+
+  private <T> List<T> decodeList(String field, Class<T> type) {
+    BsonValue value = this.document.get(field);
+    if (value == null || !value.isArray()) {
+      return null;
+    }
+    Codec<T> codec = this.codecRegistry.get(type);
+    List<T> decoded = new ArrayList<>();
+    for (BsonValue element : value.asArray()) {
+      decoded.add(element.isDocument() ? this.decode(element.asDocument(), codec) : null);
+    }
+    return decoded;
+  }
+
+  private <T> T decodeDocument(String field, Class<T> type) {
+    BsonValue value = this.document.get(field);
+    if (value == null || !value.isDocument()) {
+      return null;
+    }
+    return this.decode(value.asDocument(), this.codecRegistry.get(type));
+  }
+
+  private <T> T decode(BsonDocument document, Codec<T> codec) {
+    try (BsonReader reader = document instanceof RawBsonDocument raw
+        ? new BsonBinaryReader(raw.getByteBuffer().asNIO())
+        : new BsonDocumentReader(document)) {
+      return codec.decode(reader, DECODER_CONTEXT);
+    }
+  }
+
+  @Override
+  public List<Sequence> getSequences() {
+    if (!this.sequencesDecoded) {
+      this.setSequences(this.decodeList("sequences", Sequence.class));
+    }
+    return super.getSequences();
+  }
+
+  @Override
+  public void setSequences(List<Sequence> sequences) {
+    this.sequencesDecoded = true;
+    super.setSequences(sequences);
+  }
+
+  @Override
+  public List<SequenceGroup> getSequenceGroups() {
+    if (!this.sequenceGroupsDecoded) {
+      this.setSequenceGroups(this.decodeList("sequenceGroups", SequenceGroup.class));
+    }
+    return super.getSequenceGroups();
+  }
+
+  @Override
+  public void setSequenceGroups(List<SequenceGroup> sequenceGroups) {
+    this.sequenceGroupsDecoded = true;
+    super.setSequenceGroups(sequenceGroups);
+  }
+
+  @Override
+  public List<PsaSequence> getPsaSequences() {
+    if (!this.psaSequencesDecoded) {
+      this.setPsaSequences(this.decodeList("psaSequences", PsaSequence.class));
+    }
+    return super.getPsaSequences();
+  }
+
+  @Override
+  public void setPsaSequences(List<PsaSequence> psaSequences) {
+    this.psaSequencesDecoded = true;
+    super.setPsaSequences(psaSequences);
+  }
+
+  @Override
+  public List<Request> getRequests() {
+    if (!this.requestsDecoded) {
+      this.setRequests(this.decodeList("requests", Request.class));
+    }
+    return super.getRequests();
+  }
+
+  @Override
+  public void setRequests(List<Request> requests) {
+    this.requestsDecoded = true;
+    super.setRequests(requests);
+  }
+
+  @Override
+  public List<Vote> getVotes() {
+    if (!this.votesDecoded) {
+      this.setVotes(this.decodeList("votes", Vote.class));
+    }
+    return super.getVotes();
+  }
+
+  @Override
+  public void setVotes(List<Vote> votes) {
+    this.votesDecoded = true;
+    super.setVotes(votes);
+  }
+
+  @Override
+  public Stat getStats() {
+    if (!this.statsDecoded) {
+      this.setStats(this.decodeDocument("stats", Stat.class));
+    }
+    return super.getStats();
+  }
+
+  @Override
+  public void setStats(Stat stats) {
+    this.statsDecoded = true;
+    super.setStats(stats);
+  }
+}
@@ -0,0 +1,46 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.remotefalcon.library.models.Request;
+import com.remotefalcon.library.models.Sequence;
+import io.quarkus.mongodb.panache.common.MongoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+/**
+ * A jukebox request stored in the requestQueue collection instead of the Show's embedded requests array.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@MongoEntity(collection = "requestQueue")
+public class QueuedRequest {
+  private ObjectId id;
+  private String showToken;
+  private Integer position;
+  private Sequence sequence;
+  private Boolean ownerRequested;
+  private String viewerRequested;
+
+  public static QueuedRequest of(String showToken, Request request) {
+    return QueuedRequest.builder()
+        .showToken(showToken)
+        .position(request.getPosition())
+        .sequence(request.getSequence())
+        .ownerRequested(request.getOwnerRequested())
+        .viewerRequested(request.getViewerRequested())
+        .build();
+  }
+
+  public Request toRequest() {
+    return Request.builder()
+        .sequence(this.sequence)
+        .position(this.position)
+        .ownerRequested(this.ownerRequested)
+        .viewerRequested(this.viewerRequested)
+        .build();
+  }
+}
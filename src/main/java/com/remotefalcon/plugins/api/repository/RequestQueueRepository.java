@@ -0,0 +1,189 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import com.remotefalcon.library.models.Request;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.cluster.JobLeases;
+import io.quarkus.mongodb.panache.PanacheMongoRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.apache.commons.collections.CollectionUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Jukebox queue kept in its own collection, indexed on (showToken, position), when request.queue.collection.enabled
+ * is set. Dequeue is a single findOneAndDelete, so the Show document no longer grows with the queue. Requests that
+ * still land in a Show's embedded array (written by services that predate this collection) are moved over at
+ * startup, by one pod per deploy, and again whenever the plugin next dequeues for that show.
+ */
+@ApplicationScoped
+public class RequestQueueRepository implements PanacheMongoRepository<QueuedRequest> {
+
+  private static final Logger LOG = Logger.getLogger(RequestQueueRepository.class);
+  private static final Duration STARTUP_DRAIN_LEASE = Duration.ofMinutes(10);
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  JobLeases jobLeases;
+
+  @Inject
+  @ConfigProperty(name = "request.queue.collection.enabled")
+  boolean enabled;
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!this.enabled) {
+      return;
+    }
+    mongoCollection().createIndex(Indexes.ascending("showToken", "position"), new IndexOptions().unique(true));
+    // Every pod starts at about the same time during a deploy; one sweep is enough
+    this.jobLeases.runExclusive("request-queue-startup-drain", STARTUP_DRAIN_LEASE, this::drainAllEmbedded);
+  }
+
+  private int drainAllEmbedded() {
+    int moved = 0;
+    Iterable<Show> showsWithRequests = this.showRepository.mongoCollection()
+        .find(Filters.exists("requests.0"))
+        .projection(Projections.include("showToken"));
+    for (Show show : showsWithRequests) {
+      moved += this.drainEmbedded(show.getShowToken());
+    }
+    if (moved > 0) {
+      LOG.infof("Moved %d embedded requests into the request queue collection", moved);
+    }
+    return moved;
+  }
+
+  /**
+   * Claims the show's embedded requests by emptying the array in a single findOneAndUpdate, then appends them, in
+   * position order, behind anything already queued. Only one caller gets a given request, so concurrent drains on
+   * several pods cannot queue it twice, and a request appended after the claim stays for the next drain. If
+   * enqueueing fails, the requests not yet queued are pushed back onto the array. Returns the number of requests moved.
+   */
+  public int drainEmbedded(String showToken) {
+    Show claimed = this.showRepository.mongoCollection().findOneAndUpdate(
+        Filters.and(Filters.eq("showToken", showToken), Filters.exists("requests.0")),
+        Updates.set("requests", new ArrayList<>()),
+        new FindOneAndUpdateOptions()
+            .projection(Projections.include("requests"))
+            .returnDocument(ReturnDocument.BEFORE));
+    if (claimed == null || CollectionUtils.isEmpty(claimed.getRequests())) {
+      return 0;
+    }
+    List<Request> requests = new ArrayList<>(claimed.getRequests());
+    requests.sort(Comparator.comparing(Request::getPosition, Comparator.nullsLast(Comparator.naturalOrder())));
+    for (int i = 0; i < requests.size(); i++) {
+      Integer embeddedPosition = requests.get(i).getPosition();
+      try {
+        this.enqueue(showToken, requests.get(i));
+      } catch (RuntimeException e) {
+        requests.get(i).setPosition(embeddedPosition);
+        this.showRepository.mongoCollection().updateOne(
+            Filters.eq("showToken", showToken),
+            Updates.pushEach("requests", requests.subList(i, requests.size())));
+        throw e;
+      }
+    }
+    return requests.size();
+  }
+
+  /**
+   * Appends a request at the end of the show's queue, overriding its position.
+   */
+  public void enqueue(String showToken, Request request) {
+    while (true) {
+      request.setPosition(this.nextPosition(showToken));
+      try {
+        persist(QueuedRequest.of(showToken, request));
+        return;
+      } catch (MongoWriteException e) {
+        // Another writer took the same position, so the queue grew; the next attempt reads the new end
+        if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  public Optional<Request> dequeue(String showToken) {
+    QueuedRequest next = mongoCollection().findOneAndDelete(
+        Filters.eq("showToken", showToken),
+        new FindOneAndDeleteOptions().sort(Sorts.ascending("position")));
+    return Optional.ofNullable(next).map(QueuedRequest::toRequest);
+  }
+
+  public boolean isEmpty(String showToken) {
+    return mongoCollection().find(Filters.eq("showToken", showToken))
+        .projection(Projections.include("_id"))
+        .limit(1)
+        .first() == null;
+  }
+
+  public long depth(String showToken) {
+    return mongoCollection().countDocuments(Filters.eq("showToken", showToken));
+  }
+
+  public Optional<Request> peek(String showToken) {
+    QueuedRequest head = mongoCollection().find(Filters.eq("showToken", showToken))
+        .sort(Sorts.ascending("position"))
+        .limit(1)
+        .first();
+    return Optional.ofNullable(head).map(QueuedRequest::toRequest);
+  }
+
+  public int nextPosition(String showToken) {
+    QueuedRequest last = mongoCollection().find(Filters.eq("showToken", showToken))
+        .sort(Sorts.descending("position"))
+        .projection(Projections.include("position"))
+        .limit(1)
+        .first();
+    return last == null || last.getPosition() == null ? 1 : last.getPosition() + 1;
+  }
+
+  /**
+   * Lower-cased names of the sequences queued for the show.
+   */
+  public Set<String> queuedSequenceNames(String showToken) {
+    Set<String> names = new HashSet<>();
+    mongoCollection().find(Filters.and(Filters.eq("showToken", showToken), Filters.exists("sequence.name")))
+        .projection(Projections.include("sequence.name"))
+        .forEach(queued -> names.add(queued.getSequence().getName().toLowerCase()));
+    return names;
+  }
+
+  public void clearViewerRequested(String showToken) {
+    mongoCollection().updateMany(
+        Filters.and(Filters.eq("showToken", showToken), Filters.exists("viewerRequested")),
+        Updates.unset("viewerRequested"));
+  }
+
+  public void purge(String showToken) {
+    mongoCollection().deleteMany(Filters.eq("showToken", showToken));
+  }
+}
@@ -1,29 +1,146 @@
 package com.remotefalcon.plugins.api.repository;
 
-import com.mongodb.client.FindIterable;
+import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
 import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.cluster.JobLeases;
+import com.remotefalcon.plugins.api.metrics.ShowDocumentMetrics;
 import io.quarkus.mongodb.panache.PanacheMongoRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.conversions.Bson;
 
+import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
 public class ShowRepository implements PanacheMongoRepository<Show> {
+
+  // Exclude unnecessary fields to reduce network overhead
+  // The plugin API only needs stats.votingWin, not stats.page, stats.voting, or stats.jukebox
+  private static final Bson SHOW_PROJECTION = Projections.fields(
+      Projections.exclude("pages"),
+      Projections.exclude("stats.page"),
+      Projections.exclude("stats.voting"),
+      Projections.exclude("stats.jukebox")
+  );
+
+  // JobLeases.tokenHash of the showToken, so a job partition is an index range
+  static final String TOKEN_HASH = "tokenHash";
+
+  @Inject
+  ShowDocumentMetrics showDocumentMetrics;
+
+  public void createTokenHashIndex() {
+    mongoCollection().createIndex(Indexes.ascending(TOKEN_HASH));
+  }
+
+  /**
+   * Stores the token hash on shows that lack it: shows created, or replaced wholesale, by other services since the
+   * last call. The lookup uses the tokenHash index, since missing fields are indexed as null. Returns the number of
+   * shows updated.
+   */
+  public int assignTokenHashes() {
+    int assigned = 0;
+    Iterable<Show> unhashed = mongoCollection()
+        .find(Filters.eq(TOKEN_HASH, null))
+        .projection(Projections.include("showToken"));
+    for (Show show : unhashed) {
+      if (show.getShowToken() != null) {
+        mongoCollection().updateOne(Filters.eq("showToken", show.getShowToken()),
+            Updates.set(TOKEN_HASH, JobLeases.tokenHash(show.getShowToken())));
+        assigned++;
+      }
+    }
+    return assigned;
+  }
+
+  /**
+   * Tokens of the shows in {@code partition} that also match {@code filter}, found through the tokenHash index rather
+   * than by scanning every show. Call {@link #assignTokenHashes()} first so new shows are included.
+   */
+  public Iterable<Show> findTokensInPartition(JobLeases.Partition partition, Bson filter) {
+    return mongoCollection()
+        .find(Filters.and(
+            Filters.gte(TOKEN_HASH, partition.lowerHash()),
+            Filters.lt(TOKEN_HASH, partition.upperHash()),
+            filter))
+        .projection(Projections.include("showToken"));
+  }
+
   public Optional<Show> findByShowToken(String showToken) {
-    // Exclude unnecessary fields to reduce network overhead
-    // The plugin API only needs stats.votingWin, not stats.page, stats.voting, or stats.jukebox
-    FindIterable<Show> result = mongoCollection()
+    return this.findDocumentByShowToken(showToken).map(this::decode);
+  }
+
+  /**
+   * Same lookup as {@link #findByShowToken(String)}, but returns a {@link LazyShow} that only decodes the large
+   * arrays when they are first read. Use it for request handling, not for entities passed back to Panache.
+   */
+  public Optional<Show> findViewByShowToken(String showToken) {
+    return this.findDocumentByShowToken(showToken)
+        .map(document -> LazyShow.of(document, mongoCollection().getCodecRegistry()));
+  }
+
+  /**
+   * Only {@code fields} of the show, as raw BSON, or empty if the show does not exist.
+   */
+  public Optional<RawBsonDocument> findFields(String showToken, List<String> fields) {
+    return Optional.ofNullable(mongoCollection().withDocumentClass(RawBsonDocument.class)
+        .find(Filters.eq("showToken", showToken))
+        .projection(Projections.fields(Projections.excludeId(), Projections.include(fields)))
+        .first());
+  }
+
+  /**
+   * Just what a plugin state snapshot needs: the viewer control preferences, each request's position and sequence
+   * name, and each vote's count, time and name. Empty if the show does not exist.
+   */
+  public Optional<Document> findPluginState(String showToken) {
+    return Optional.ofNullable(mongoCollection().withDocumentClass(Document.class)
         .find(Filters.eq("showToken", showToken))
         .projection(Projections.fields(
-            Projections.exclude("pages"),
-            Projections.exclude("stats.page"),
-            Projections.exclude("stats.voting"),
-            Projections.exclude("stats.jukebox")
-        ));
-
-    Show show = result.first();
-    return Optional.ofNullable(show);
+            Projections.excludeId(),
+            Projections.include("preferences.viewerControlMode", "preferences.viewerControlEnabled",
+                "preferences.managePsa", "requests.position", "requests.sequence.name",
+                "votes.votes", "votes.lastVoteTime", "votes.sequence.name", "votes.sequenceGroup.name")
+        ))
+        .first());
+  }
+
+  private Optional<RawBsonDocument> findDocumentByShowToken(String showToken) {
+    // Fetch the raw bytes first so the document size can be recorded before decoding
+    RawBsonDocument document = mongoCollection()
+        .withDocumentClass(RawBsonDocument.class)
+        .find(Filters.eq("showToken", showToken))
+        .projection(SHOW_PROJECTION)
+        .first();
+    if (document == null) {
+      return Optional.empty();
+    }
+    this.showDocumentMetrics.record(showToken, document, () -> this.fullDocumentSize(showToken));
+    return Optional.of(document);
+  }
+
+  // Size of the whole stored document, computed server-side so only the number crosses the network
+  private int fullDocumentSize(String showToken) {
+    Document size = mongoCollection().withDocumentClass(Document.class).aggregate(List.of(
+            Aggregates.match(Filters.eq("showToken", showToken)),
+            Aggregates.project(new Document("_id", 0).append("bytes", new Document("$bsonSize", "$$ROOT")))))
+        .first();
+    return size == null ? 0 : size.get("bytes", Number.class).intValue();
+  }
+
+  private Show decode(RawBsonDocument document) {
+    try (BsonReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+      return mongoCollection().getCodecRegistry().get(Show.class).decode(reader, DecoderContext.builder().build());
+    }
   }
 }
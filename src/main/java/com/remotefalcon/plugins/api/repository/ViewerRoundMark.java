@@ -0,0 +1,27 @@
+package com.remotefalcon.plugins.api.repository;
+
+import io.quarkus.mongodb.panache.common.MongoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Records that a viewer voted or requested during one voting round of a show. Expires after viewer.dedup.ttl.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@MongoEntity(collection = "viewerRounds")
+public class ViewerRoundMark {
+  private ObjectId id;
+  private String showToken;
+  private Long round;
+  private String kind;
+  private String viewer;
+  private Instant createdAt;
+}
@@ -0,0 +1,108 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import io.quarkus.mongodb.panache.PanacheMongoRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.bson.Document;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-round viewer marks (viewer.dedup.rounds.enabled) for writers that dedupe viewers here rather than through each
+ * vote's viewersVoted list and each request's viewerRequested flag. A vote or request is recorded under the show's
+ * current votingRound, which every song change moves on; marks from earlier rounds no longer match and expire through
+ * a TTL index. The plugin API records no marks itself, and the viewer site still reads the embedded fields, so
+ * updateWhatsPlaying keeps clearing those as well.
+ */
+@ApplicationScoped
+public class ViewerRoundRepository implements PanacheMongoRepository<ViewerRoundMark> {
+
+  public static final String VOTING_ROUND = "votingRound";
+  public static final String VOTE = "vote";
+  public static final String REQUEST = "request";
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  @ConfigProperty(name = "viewer.dedup.rounds.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "viewer.dedup.ttl")
+  Duration ttl;
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!this.enabled) {
+      return;
+    }
+    mongoCollection().createIndex(Indexes.ascending("showToken", "round", "kind", "viewer"), new IndexOptions().unique(true));
+    mongoCollection().createIndex(Indexes.ascending("createdAt"), new IndexOptions().expireAfter(this.ttl.toSeconds(), TimeUnit.SECONDS));
+  }
+
+  /**
+   * Starts a new voting round with one update of the show's votingRound and returns its id. The id is the later of
+   * the current time in milliseconds and the previous round plus one, so it keeps increasing even if the Show
+   * document is replaced wholesale and loses the field. Returns 0 if the show does not exist.
+   */
+  public long advanceRound(String showToken) {
+    Document nextRound = new Document("$max", List.of(
+        System.currentTimeMillis(),
+        new Document("$add", List.of(new Document("$ifNull", List.of("$" + VOTING_ROUND, 0L)), 1L))));
+    Document show = this.showRepository.mongoCollection().withDocumentClass(Document.class).findOneAndUpdate(
+        Filters.eq("showToken", showToken),
+        List.of(new Document("$set", new Document(VOTING_ROUND, nextRound))),
+        new FindOneAndUpdateOptions().projection(Projections.include(VOTING_ROUND)).returnDocument(ReturnDocument.AFTER));
+    return show == null ? 0L : ((Number) show.get(VOTING_ROUND)).longValue();
+  }
+
+  public OptionalLong currentRound(String showToken) {
+    Document show = this.showRepository.mongoCollection().withDocumentClass(Document.class)
+        .find(Filters.eq("showToken", showToken))
+        .projection(Projections.include(VOTING_ROUND))
+        .first();
+    return show == null || show.get(VOTING_ROUND) == null
+        ? OptionalLong.empty()
+        : OptionalLong.of(((Number) show.get(VOTING_ROUND)).longValue());
+  }
+
+  /**
+   * Records that {@code viewer} voted or requested ({@code kind}) in {@code round}. Returns false if they already had.
+   */
+  public boolean record(String showToken, long round, String kind, String viewer) {
+    try {
+      persist(ViewerRoundMark.builder()
+          .showToken(showToken)
+          .round(round)
+          .kind(kind)
+          .viewer(viewer)
+          .createdAt(Instant.now())
+          .build());
+      return true;
+    } catch (MongoWriteException e) {
+      if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+        return false;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.remotefalcon.plugins.api.repository;
+
+import io.quarkus.mongodb.panache.common.MongoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Voting wins of one show on one day, rolled up from stats.votingWin. Entries dated before {@code rolledUpTo} are
+ * counted here and no longer kept in the show.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@MongoEntity(collection = "votingWinRollups")
+public class VotingWinRollup {
+  private String id;
+  private String showToken;
+  private LocalDate day;
+  private int total;
+  private List<SequenceWins> wins;
+  private LocalDateTime rolledUpTo;
+
+  @Data
+  @Builder
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class SequenceWins {
+    private String name;
+    private int wins;
+  }
+
+  public static String id(String showToken, LocalDate day) {
+    return showToken + ":" + day;
+  }
+}
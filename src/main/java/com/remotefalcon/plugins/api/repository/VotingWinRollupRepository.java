@@ -0,0 +1,39 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.Filters;
+import io.quarkus.mongodb.panache.PanacheMongoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@ApplicationScoped
+public class VotingWinRollupRepository implements PanacheMongoRepository<VotingWinRollup> {
+
+  public Optional<VotingWinRollup> findDay(String showToken, LocalDate day) {
+    return Optional.ofNullable(mongoCollection().find(Filters.eq("_id", VotingWinRollup.id(showToken, day))).first());
+  }
+
+  /**
+   * Stores {@code next} if the day's rollup is still {@code previous} (empty if there was none). Returns false if
+   * another run changed it in between, in which case nothing is written.
+   */
+  public boolean replace(Optional<VotingWinRollup> previous, VotingWinRollup next) {
+    if (previous.isEmpty()) {
+      try {
+        mongoCollection().insertOne(next);
+        return true;
+      } catch (MongoWriteException e) {
+        if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+          throw e;
+        }
+        return false;
+      }
+    }
+    return mongoCollection().replaceOne(
+        Filters.and(Filters.eq("_id", next.getId()), Filters.eq("rolledUpTo", previous.get().getRolledUpTo())),
+        next).getMatchedCount() > 0;
+  }
+}
@@ -0,0 +1,123 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Separate bounded pools for real-time queue calls and for bulk/admin calls (bulkhead.enabled), so a wave of
+ * syncPlaylists cannot hold up nextPlaylistInQueue on a live show. A call that finds its pool and queue full is
+ * rejected with 503 rather than waiting. Tasks run without a CDI request context; callers pass the request's
+ * {@code ShowContext} into the task explicitly.
+ */
+@ApplicationScoped
+public class Bulkheads {
+
+  public enum Pool {
+    REALTIME,
+    BULK
+  }
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "bulkhead.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "bulkhead.realtime.threads")
+  int realtimeThreads;
+
+  @Inject
+  @ConfigProperty(name = "bulkhead.realtime.queue")
+  int realtimeQueue;
+
+  @Inject
+  @ConfigProperty(name = "bulkhead.bulk.threads")
+  int bulkThreads;
+
+  @Inject
+  @ConfigProperty(name = "bulkhead.bulk.queue")
+  int bulkQueue;
+
+  private final Map<Pool, ThreadPoolExecutor> executors = new EnumMap<>(Pool.class);
+  private final Map<Pool, Counter> rejected = new EnumMap<>(Pool.class);
+
+  @PostConstruct
+  void init() {
+    this.register(Pool.REALTIME, this.realtimeThreads, this.realtimeQueue);
+    this.register(Pool.BULK, this.bulkThreads, this.bulkQueue);
+  }
+
+  private void register(Pool pool, int threads, int queue) {
+    String name = pool.name().toLowerCase();
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queue), runnable -> {
+          Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    this.executors.put(pool, executor);
+    // executor.active, executor.queued, executor.queue.remaining etc. tagged name=bulkhead.<pool>
+    ExecutorServiceMetrics.monitor(this.meterRegistry, executor, "bulkhead." + name, Tags.empty());
+    this.rejected.put(pool, Counter.builder("plugin.bulkhead.rejected")
+        .description("Plugin calls rejected with 503 because their bulkhead was full")
+        .tag("pool", name)
+        .register(this.meterRegistry));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    this.executors.values().forEach(ThreadPoolExecutor::shutdown);
+  }
+
+  /**
+   * Runs {@code call} on the pool. With bulkheads disabled it runs right away on the calling thread.
+   */
+  public <T> CompletionStage<T> submit(Pool pool, Supplier<T> call) {
+    if (!this.enabled) {
+      return CompletableFuture.completedFuture(call.get());
+    }
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      this.executors.get(pool).execute(() -> {
+        try {
+          result.complete(call.get());
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      this.rejected.get(pool).increment();
+      throw new WebApplicationException(
+          Response.status(Response.Status.SERVICE_UNAVAILABLE)
+              .entity(PluginResponse.builder().message("Server is busy, try again shortly").build())
+              .build()
+      );
+    }
+    return result;
+  }
+}
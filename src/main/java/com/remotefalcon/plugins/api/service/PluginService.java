@@ -7,92 +7,178 @@ import com.remotefalcon.library.models.*;
 import com.remotefalcon.library.quarkus.entity.Show;
 import com.remotefalcon.plugins.api.context.ShowContext;
 import com.remotefalcon.plugins.api.model.*;
+import com.remotefalcon.plugins.api.repository.RequestQueueRepository;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import com.remotefalcon.plugins.api.repository.ViewerRoundRepository;
 
 import io.quarkus.logging.Log;
-import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.bson.conversions.Bson;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-@RequestScoped
+@ApplicationScoped
 public class PluginService {
 
   private static final Logger LOG = Logger.getLogger(PluginService.class);
 
   @Inject
-  ShowContext showContext;
+  ShowRepository showRepository;
+
+  @Inject
+  ShowLockManager showLockManager;
+
+  @Inject
+  RequestQueueRepository requestQueueRepository;
+
+  @Inject
+  ViewerRoundRepository viewerRoundRepository;
+
+  @Inject
+  SequenceCompactor sequenceCompactor;
+
+  @Inject
+  VotingWinRollups votingWinRollups;
+
+  @Inject
+  PollHints pollHints;
 
   @Inject
   @ConfigProperty(name = "sequence.limit")
   int sequenceLimit;
 
-  public NextPlaylistResponse nextPlaylistInQueue() {
+  /**
+   * Runs a read-modify-write under the show's lock, re-reading the show first if another locked write for it
+   * completed after the filter loaded it.
+   */
+  private <T> T withShowLock(ShowContext showContext, Function<Show, T> action) {
     Show show = showContext.getShow();
+    return this.showLockManager.withLock(show.getShowToken(), () -> action.apply(this.currentShow(showContext, show)));
+  }
+
+  private Show currentShow(ShowContext showContext, Show show) {
+    if (!this.showLockManager.isStale(show.getShowToken(), showContext.getLockStamp())) {
+      return show;
+    }
+    showContext.setLockStamp(this.showLockManager.stamp(show.getShowToken()));
+    Show freshShow = this.showRepository.findViewByShowToken(show.getShowToken()).orElse(show);
+    showContext.setShow(freshShow);
+    return freshShow;
+  }
+
+  /**
+   * Writes {@code update} for a change already applied to {@code show} in memory.
+   */
+  private void persist(Show show, Bson update) {
+    Show.mongoCollection().updateOne(Filters.eq("showToken", show.getShowToken()), update);
+  }
+
+  public NextPlaylistResponse nextPlaylistInQueue(ShowContext showContext) {
+    return this.withShowLock(showContext, show -> {
+      NextPlaylistResponse response = this.nextPlaylistInQueue(show);
+      response.setNextPollSeconds(this.pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, response.getNextPlaylist() != null));
+      return response;
+    });
+  }
+
+  private NextPlaylistResponse nextPlaylistInQueue(Show show) {
     NextPlaylistResponse defaultResponse = NextPlaylistResponse.builder()
         .nextPlaylist(null)
         .playlistIndex(-1)
         .build();
-    if (CollectionUtils.isEmpty(show.getRequests())) {
-      return defaultResponse;
+    if (this.requestQueueRepository.isEnabled()) {
+      return this.nextQueuedPlaylist(show).orElse(defaultResponse);
     }
-    Optional<Request> nextRequest = show.getRequests().stream().min(Comparator.comparing(Request::getPosition));
-    if (nextRequest.isEmpty()) {
+    if (CollectionUtils.isEmpty(show.getRequests())) {
       return defaultResponse;
     }
-    this.updateVisibilityCounts(show, nextRequest.get());
+    Request nextRequest = show.getRequests().stream().min(Comparator.comparing(Request::getPosition)).orElseThrow();
+    Sequence nextSequence = nextRequest.getSequence();
+    this.updateVisibilityCounts(show, nextSequence);
+    show.getRequests().remove(nextRequest);
 
     // Atomic removal of the request by position and update visibility counts
-    Show.mongoCollection().updateOne(
-        Filters.eq("showToken", show.getShowToken()),
+    this.persist(show,
         Updates.combine(
-            Updates.pull("requests", Filters.eq("position", nextRequest.get().getPosition())),
+            Updates.pull("requests", Filters.eq("position", nextRequest.getPosition())),
             Updates.set("sequences", show.getSequences()),
             Updates.set("sequenceGroups", show.getSequenceGroups())
         )
     );
 
     return NextPlaylistResponse.builder()
-        .nextPlaylist(nextRequest.get().getSequence().getName())
-        .playlistIndex(nextRequest.get().getSequence().getIndex())
+        .nextPlaylist(nextSequence.getName())
+        .playlistIndex(nextSequence.getIndex())
         .build();
   }
 
-  private void updateVisibilityCounts(Show show, Request request) {
+  private Optional<NextPlaylistResponse> nextQueuedPlaylist(Show show) {
+    if (CollectionUtils.isNotEmpty(show.getRequests())) {
+      this.requestQueueRepository.drainEmbedded(show.getShowToken());
+      show.setRequests(new ArrayList<>());
+    }
+    Optional<Request> nextRequest = this.requestQueueRepository.dequeue(show.getShowToken());
+    if (nextRequest.isEmpty()) {
+      return Optional.empty();
+    }
+    Sequence nextSequence = nextRequest.get().getSequence();
+    this.updateVisibilityCounts(show, nextSequence);
+    this.persist(show,
+        Updates.combine(
+            Updates.set("sequences", show.getSequences()),
+            Updates.set("sequenceGroups", show.getSequenceGroups())
+        )
+    );
+    return Optional.of(NextPlaylistResponse.builder()
+        .nextPlaylist(nextSequence.getName())
+        .playlistIndex(nextSequence.getIndex())
+        .build());
+  }
+
+  private void updateVisibilityCounts(Show show, Sequence requestedSequence) {
     if (show.getPreferences().getHideSequenceCount() != 0) {
-      if (!StringUtils.isEmpty(request.getSequence().getGroup())) {
+      if (!StringUtils.isEmpty(requestedSequence.getGroup())) {
         Optional<SequenceGroup> sequenceGroup = show.getSequenceGroups().stream()
-            .filter((group) -> StringUtils.equalsIgnoreCase(group.getName(), request.getSequence().getGroup()))
+            .filter((group) -> StringUtils.equalsIgnoreCase(group.getName(), requestedSequence.getGroup()))
             .findFirst();
         sequenceGroup.ifPresent(group -> group.setVisibilityCount(show.getPreferences().getHideSequenceCount() + 1));
       } else {
         Optional<Sequence> sequence = show.getSequences().stream()
-            .filter((seq) -> StringUtils.equalsIgnoreCase(seq.getName(), request.getSequence().getName()))
+            .filter((seq) -> StringUtils.equalsIgnoreCase(seq.getName(), requestedSequence.getName()))
             .findFirst();
         sequence.ifPresent(seq -> seq.setVisibilityCount(show.getPreferences().getHideSequenceCount() + 1));
       }
     }
   }
 
-  public PluginResponse updatePlaylistQueue() {
+  public PluginResponse updatePlaylistQueue(ShowContext showContext) {
     Show show = showContext.getShow();
-    if (CollectionUtils.isEmpty(show.getRequests())) {
-      return PluginResponse.builder().message("Queue Empty").build();
+    boolean queueEmpty = CollectionUtils.isEmpty(show.getRequests())
+        && (!this.requestQueueRepository.isEnabled() || this.requestQueueRepository.isEmpty(show.getShowToken()));
+    Integer nextPollSeconds = this.pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, !queueEmpty);
+    if (queueEmpty) {
+      return PluginResponse.builder().message("Queue Empty").nextPollSeconds(nextPollSeconds).build();
     } else {
-      return PluginResponse.builder().message("Success").build();
+      return PluginResponse.builder().message("Success").nextPollSeconds(nextPollSeconds).build();
     }
   }
 
-  public PluginResponse syncPlaylists(SyncPlaylistRequest request) {
-    Show show = showContext.getShow();
+  public PluginResponse syncPlaylists(ShowContext showContext, SyncPlaylistRequest request) {
+    return this.withShowLock(showContext, show -> this.syncPlaylists(request, show));
+  }
+
+  private PluginResponse syncPlaylists(SyncPlaylistRequest request, Show show) {
     List<SyncPlaylistDetails> playlists = request.getPlaylists();
     Log.infof("Received syncPlaylists request for %s. Playlist size: %s", show.getShowToken(),
         playlists != null ? playlists.size() : 0);
@@ -134,22 +220,27 @@ public class PluginService {
     updatedSequences.addAll(this.addNewSequences(request, show));
 
     List<PsaSequence> updatedPsaSequences = this.updatePsaSequences(request, show);
+    show.setSequences(new ArrayList<>(updatedSequences));
+    show.setPsaSequences(updatedPsaSequences);
+    this.sequenceCompactor.track(show);
+    if (this.sequenceCompactor.isInline()) {
+      this.sequenceCompactor.compactInline(show);
+    }
 
     // Atomic updates for sequences and PSA sequences
     if (CollectionUtils.isEmpty(updatedPsaSequences)) {
-      Show.mongoCollection().updateOne(
-          Filters.eq("showToken", show.getShowToken()),
+      show.getPreferences().setPsaEnabled(false);
+      this.persist(show,
           Updates.combine(
-              Updates.set("sequences", updatedSequences.stream().toList()),
+              Updates.set("sequences", show.getSequences()),
               Updates.set("psaSequences", updatedPsaSequences),
               Updates.set("preferences.psaEnabled", false)
           )
       );
     } else {
-      Show.mongoCollection().updateOne(
-          Filters.eq("showToken", show.getShowToken()),
+      this.persist(show,
           Updates.combine(
-              Updates.set("sequences", updatedSequences.stream().toList()),
+              Updates.set("sequences", show.getSequences()),
               Updates.set("psaSequences", updatedPsaSequences)
           )
       );
@@ -263,10 +354,15 @@ public class PluginService {
 
   private List<PsaSequence> updatePsaSequences(SyncPlaylistRequest request, Show show) {
     List<PsaSequence> updatedPsaSequences = new ArrayList<>();
-    List<String> playlistNamesInRequest = request.getPlaylists().stream().map(SyncPlaylistDetails::getPlaylistName).toList();
+    // Case-insensitive like the rest of syncPlaylists; the request reader keeps only the first spelling of a name
+    Set<String> playlistNamesInRequest = request.getPlaylists().stream()
+        .map(SyncPlaylistDetails::getPlaylistName)
+        .filter(StringUtils::isNotEmpty)
+        .map(StringUtils::lowerCase)
+        .collect(Collectors.toSet());
     if (CollectionUtils.isNotEmpty(show.getPsaSequences())) {
       for (PsaSequence psa : show.getPsaSequences()) {
-        if (playlistNamesInRequest.contains(psa.getName())) {
+        if (playlistNamesInRequest.contains(StringUtils.lowerCase(psa.getName()))) {
           updatedPsaSequences.add(psa);
         }
       }
@@ -274,11 +370,14 @@ public class PluginService {
     return updatedPsaSequences;
   }
 
-  public PluginResponse updateWhatsPlaying(UpdateWhatsPlayingRequest request) {
+  public PluginResponse updateWhatsPlaying(ShowContext showContext, UpdateWhatsPlayingRequest request) {
     if (request == null) {
       return PluginResponse.builder().build();
     }
-    Show show = showContext.getShow();
+    return this.withShowLock(showContext, show -> this.updateWhatsPlaying(request, show));
+  }
+
+  private PluginResponse updateWhatsPlaying(UpdateWhatsPlayingRequest request, Show show) {
     if (show.getPreferences() == null) {
       LOG.warnf("updateWhatsPlaying rejected for showToken=%s: preferences not found", show.getShowToken());
       throw new WebApplicationException(
@@ -348,31 +447,35 @@ public class PluginService {
 
       this.handleManagedPSA(sequencesPlayed, show, psaNamesLowerCase);
 
-      // Clear viewer flags before persisting
+      if (this.viewerRoundRepository.isEnabled()) {
+        this.viewerRoundRepository.advanceRound(show.getShowToken());
+      }
+      // Clear viewer flags before persisting; the viewer site dedupes on them
       if (show.getRequests() != null) {
         show.getRequests().forEach(req -> req.setViewerRequested(null));
       }
+      if (this.requestQueueRepository.isEnabled()) {
+        this.requestQueueRepository.clearViewerRequested(show.getShowToken());
+      }
       if (show.getVotes() != null) {
         show.getVotes().forEach(vote -> vote.setViewersVoted(new ArrayList<>()));
       }
 
-      // Atomic update for all the modified fields
-      Show.mongoCollection().updateOne(
-          Filters.eq("showToken", show.getShowToken()),
-          Updates.combine(
-              Updates.set("playingNow", request.getPlaylist()),
-              Updates.set("preferences.sequencesPlayed", sequencesPlayed),
-              Updates.set("sequences", sequences),
-              Updates.set("sequenceGroups", sequenceGroups),
-              Updates.set("psaSequences", show.getPsaSequences() != null ? show.getPsaSequences() : new ArrayList<>()),
-              Updates.set("requests", show.getRequests() != null ? show.getRequests() : new ArrayList<>()),
-              Updates.set("votes", show.getVotes() != null ? show.getVotes() : new ArrayList<>())
-          )
+      List<Bson> updates = List.of(
+          Updates.set("playingNow", request.getPlaylist()),
+          Updates.set("preferences.sequencesPlayed", sequencesPlayed),
+          Updates.set("sequences", sequences),
+          Updates.set("sequenceGroups", sequenceGroups),
+          Updates.set("psaSequences", show.getPsaSequences() != null ? show.getPsaSequences() : new ArrayList<>()),
+          Updates.set("requests", show.getRequests() != null ? show.getRequests() : new ArrayList<>()),
+          Updates.set("votes", show.getVotes() != null ? show.getVotes() : new ArrayList<>())
       );
+
+      // Atomic update for all the modified fields
+      this.persist(show, Updates.combine(updates));
     } else {
       // Clear playing fields
-      Show.mongoCollection().updateOne(
-          Filters.eq("showToken", show.getShowToken()),
+      this.persist(show,
           Updates.combine(
               Updates.set("playingNow", ""),
               Updates.set("playingNext", ""),
@@ -442,15 +545,6 @@ public class PluginService {
       show.setVotes(new ArrayList<>());
     }
 
-    // Calculate the next position in the queue
-    int nextPosition = 1;
-    if (CollectionUtils.isNotEmpty(show.getRequests())) {
-      nextPosition = show.getRequests().stream()
-          .map(Request::getPosition)
-          .max(Integer::compareTo)
-          .orElse(0) + 1;
-    }
-
     // Always add PSA to votes with high priority (2000) for jukebox mode
     show.getVotes().add(Vote.builder()
         .sequence(requestedSequence)
@@ -460,11 +554,21 @@ public class PluginService {
         .build());
 
     // Add PSA to requests at the next available position in the queue
-    show.getRequests().add(Request.builder()
+    Request psaRequest = Request.builder()
         .sequence(requestedSequence)
         .ownerRequested(false)
-        .position(nextPosition)
-        .build());
+        .build();
+    if (this.requestQueueRepository.isEnabled()) {
+      this.requestQueueRepository.enqueue(show.getShowToken(), psaRequest);
+      return;
+    }
+    // Persisted with the song-change write
+    psaRequest.setPosition(show.getRequests().stream()
+        .map(Request::getPosition)
+        .filter(Objects::nonNull)
+        .max(Integer::compareTo)
+        .orElse(0) + 1);
+    show.getRequests().add(psaRequest);
   }
 
   private void setPSASequenceVote(Show show, Sequence requestedSequence, Set<String> psaNamesLowerCase) {
@@ -482,8 +586,11 @@ public class PluginService {
   }
 
 
-  public PluginResponse updateNextScheduledSequence(UpdateNextScheduledRequest request) {
-    Show show = showContext.getShow();
+  public PluginResponse updateNextScheduledSequence(ShowContext showContext, UpdateNextScheduledRequest request) {
+    return this.withShowLock(showContext, show -> this.updateNextScheduledSequence(request, show));
+  }
+
+  private PluginResponse updateNextScheduledSequence(UpdateNextScheduledRequest request, Show show) {
     if (show.getPreferences() == null) {
       LOG.warnf("updateNextScheduledSequence rejected for showToken=%s: preferences not found", show.getShowToken());
       throw new WebApplicationException(
@@ -493,8 +600,10 @@ public class PluginService {
       );
     }
     if (StringUtils.isEmpty(request.getSequence())) {
-      Show.mongoCollection().updateOne(
-          Filters.eq("showToken", show.getShowToken()),
+      show.setPlayingNow("");
+      show.setPlayingNext("");
+      show.setPlayingNextFromSchedule("");
+      this.persist(show,
           Updates.combine(
               Updates.set("playingNow", ""),
               Updates.set("playingNext", ""),
@@ -502,24 +611,35 @@ public class PluginService {
           )
       );
     } else {
-      Show.mongoCollection().updateOne(
-          Filters.eq("showToken", show.getShowToken()),
+      show.setPlayingNextFromSchedule(request.getSequence());
+      this.persist(show,
           Updates.set("playingNextFromSchedule", request.getSequence())
       );
     }
     return PluginResponse.builder().nextScheduledSequence(request.getSequence()).build();
   }
 
-  public PluginResponse viewerControlMode() {
+  public PluginResponse viewerControlMode(ShowContext showContext) {
     Show show = showContext.getShow();
     String viewerControlMode = show.getPreferences().getViewerControlMode().name().toLowerCase();
     return PluginResponse.builder()
         .viewerControlMode(viewerControlMode)
+        .nextPollSeconds(this.pollHints.nextPollSeconds(show, PollHints.Endpoint.OTHER, false))
         .build();
   }
 
-  public HighestVotedPlaylistResponse highestVotedPlaylist() {
-    Show show = showContext.getShow();
+  public HighestVotedPlaylistResponse highestVotedPlaylist(ShowContext showContext) {
+    return this.withShowLock(showContext, show -> {
+      HighestVotedPlaylistResponse response = this.highestVotedPlaylist(show);
+      if (response != null) {
+        response.setNextPollSeconds(this.pollHints.nextPollSeconds(show, PollHints.Endpoint.VOTES,
+            response.getWinningPlaylist() != null || CollectionUtils.isNotEmpty(show.getVotes())));
+      }
+      return response;
+    });
+  }
+
+  private HighestVotedPlaylistResponse highestVotedPlaylist(Show show) {
     HighestVotedPlaylistResponse response = HighestVotedPlaylistResponse.builder()
         .winningPlaylist(null)
         .playlistIndex(-1)
@@ -636,10 +756,7 @@ public class PluginService {
 
         if (show.getPreferences().getPsaEnabled() && !show.getPreferences().getManagePsa()
             && CollectionUtils.isNotEmpty(show.getPsaSequences()) && StringUtils.isEmpty(actualSequence.get().getGroup()) && !winningSequenceIsPSA) {
-          Integer voteWinsToday = show.getStats().getVotingWin().stream()
-              .filter(stat -> stat.getDateTime().isAfter(LocalDateTime.now().withHour(0).withMinute(0).withSecond(0)))
-              .toList()
-              .size();
+          Integer voteWinsToday = this.votingWinRollups.winsToday(show);
           boolean isPSAPlayingNow = show.getPsaSequences().stream()
               .anyMatch(psaSequence -> StringUtils.equalsIgnoreCase(show.getPlayingNow(), psaSequence.getName()));
           if (voteWinsToday % show.getPreferences().getPsaFrequency() == 0 && !isPSAPlayingNow) {
@@ -672,8 +789,7 @@ public class PluginService {
         }
 
         // Atomic update for all changes
-        Show.mongoCollection().updateOne(
-            Filters.eq("showToken", show.getShowToken()),
+        this.persist(show,
             Updates.combine(
                 Updates.set("votes", show.getVotes()),
                 Updates.set("stats.votingWin", show.getStats().getVotingWin()),
@@ -692,7 +808,7 @@ public class PluginService {
     return null;
   }
 
-  public PluginResponse pluginVersion(PluginVersion request) {
+  public PluginResponse pluginVersion(ShowContext showContext, PluginVersion request) {
     Show show = showContext.getShow();
     Show.mongoCollection().updateOne(
         Filters.eq("showToken", show.getShowToken()),
@@ -704,7 +820,7 @@ public class PluginService {
     return PluginResponse.builder().message("Success").build();
   }
 
-  public RemotePreferenceResponse remotePreferences() {
+  public RemotePreferenceResponse remotePreferences(ShowContext showContext) {
     Show show = showContext.getShow();
     return RemotePreferenceResponse.builder()
         .remoteSubdomain(show.getShowSubdomain())
@@ -712,10 +828,17 @@ public class PluginService {
         .build();
   }
 
-  public PluginResponse purgeQueue() {
-    Show show = showContext.getShow();
-    Show.mongoCollection().updateOne(
-        Filters.eq("showToken", show.getShowToken()),
+  public PluginResponse purgeQueue(ShowContext showContext) {
+    return this.withShowLock(showContext, this::purgeQueue);
+  }
+
+  private PluginResponse purgeQueue(Show show) {
+    if (this.requestQueueRepository.isEnabled()) {
+      this.requestQueueRepository.purge(show.getShowToken());
+    }
+    show.setRequests(new ArrayList<>());
+    show.setVotes(new ArrayList<>());
+    this.persist(show,
         Updates.combine(
             Updates.set("requests", new ArrayList<>()),
             Updates.set("votes", new ArrayList<>())
@@ -724,20 +847,27 @@ public class PluginService {
     return PluginResponse.builder().message("Success").build();
   }
 
-  public PluginResponse resetAllVotes() {
-    Show show = showContext.getShow();
-    Show.mongoCollection().updateOne(
-        Filters.eq("showToken", show.getShowToken()),
+  public PluginResponse resetAllVotes(ShowContext showContext) {
+    return this.withShowLock(showContext, this::resetAllVotes);
+  }
+
+  private PluginResponse resetAllVotes(Show show) {
+    show.setVotes(new ArrayList<>());
+    this.persist(show,
         Updates.set("votes", new ArrayList<>())
     );
     return PluginResponse.builder().message("Success").build();
   }
 
-  public PluginResponse toggleViewerControl() {
-    Show show = showContext.getShow();
+  public PluginResponse toggleViewerControl(ShowContext showContext) {
+    return this.withShowLock(showContext, this::toggleViewerControl);
+  }
+
+  private PluginResponse toggleViewerControl(Show show) {
     boolean newValue = !show.getPreferences().getViewerControlEnabled();
-    Show.mongoCollection().updateOne(
-        Filters.eq("showToken", show.getShowToken()),
+    show.getPreferences().setViewerControlEnabled(newValue);
+    show.getPreferences().setSequencesPlayed(0);
+    this.persist(show,
         Updates.combine(
             Updates.set("preferences.viewerControlEnabled", newValue),
             Updates.set("preferences.sequencesPlayed", 0)
@@ -746,8 +876,11 @@ public class PluginService {
     return PluginResponse.builder().viewerControlEnabled(newValue).build();
   }
 
-  public PluginResponse updateViewerControl(ViewerControlRequest request) {
-    Show show = showContext.getShow();
+  public PluginResponse updateViewerControl(ShowContext showContext, ViewerControlRequest request) {
+    return this.withShowLock(showContext, show -> this.updateViewerControl(request, show));
+  }
+
+  private PluginResponse updateViewerControl(ViewerControlRequest request, Show show) {
     if (show.getPreferences() == null) {
       LOG.warnf("updateViewerControl rejected for showToken=%s: preferences not found", show.getShowToken());
       throw new WebApplicationException(
@@ -757,15 +890,18 @@ public class PluginService {
       );
     }
     boolean enabled = StringUtils.equalsIgnoreCase("Y", request.getViewerControlEnabled());
-    Show.mongoCollection().updateOne(
-        Filters.eq("showToken", show.getShowToken()),
+    show.getPreferences().setViewerControlEnabled(enabled);
+    this.persist(show,
         Updates.set("preferences.viewerControlEnabled", enabled)
     );
     return PluginResponse.builder().viewerControlEnabled(enabled).build();
   }
 
-  public PluginResponse updateManagedPsa(ManagedPSARequest request) {
-    Show show = showContext.getShow();
+  public PluginResponse updateManagedPsa(ShowContext showContext, ManagedPSARequest request) {
+    return this.withShowLock(showContext, show -> this.updateManagedPsa(request, show));
+  }
+
+  private PluginResponse updateManagedPsa(ManagedPSARequest request, Show show) {
     if (show.getPreferences() == null) {
       LOG.warnf("updateManagedPsa rejected for showToken=%s: preferences not found", show.getShowToken());
       throw new WebApplicationException(
@@ -775,15 +911,16 @@ public class PluginService {
       );
     }
     boolean enabled = StringUtils.equalsIgnoreCase("Y", request.getManagedPsaEnabled());
-    Show.mongoCollection().updateOne(
-        Filters.eq("showToken", show.getShowToken()),
+    show.getPreferences().setManagePsa(enabled);
+    this.persist(show,
         Updates.set("preferences.managePsa", enabled)
     );
     return PluginResponse.builder().managedPsaEnabled(enabled).build();
   }
 
-  public void fppHeartbeat() {
+  public void fppHeartbeat(ShowContext showContext) {
     Show show = showContext.getShow();
-    Show.mongoCollection().updateOne(Filters.eq("showToken", show.getShowToken()), Updates.set("lastFppHeartbeat", LocalDateTime.now()));
+    Show.mongoCollection().updateOne(Filters.eq("showToken", show.getShowToken()),
+        Updates.set("lastFppHeartbeat", LocalDateTime.now()));
   }
 }
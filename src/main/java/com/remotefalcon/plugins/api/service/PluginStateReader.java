@@ -0,0 +1,106 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.library.models.Request;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import com.remotefalcon.plugins.api.model.PluginState;
+import com.remotefalcon.plugins.api.repository.RequestQueueRepository;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+import org.bson.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Everything a plugin cycle reads, in one call: the viewer control settings, the queue depth and head, and the vote
+ * leader. Served from a small projection of the show instead of the full document the other endpoints load.
+ */
+@ApplicationScoped
+public class PluginStateReader {
+
+  private static final Comparator<Integer> POSITION_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+  // Earlier votes rank higher
+  private static final Comparator<Date> VOTE_DATE_ORDER = Comparator.nullsFirst(Comparator.<Date>reverseOrder());
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  RequestQueueRepository requestQueueRepository;
+
+  public PluginState read(String showToken) {
+    PluginState state = this.showRepository.findPluginState(showToken).map(PluginStateReader::fromDocument)
+        .orElseThrow(PluginStateReader::showNotFound);
+    if (this.requestQueueRepository.isEnabled()) {
+      // Requests still embedded in the show are drained ahead of the collection, so they stay at the head
+      long depth = this.requestQueueRepository.depth(showToken);
+      if (state.getQueueHead() == null && depth > 0) {
+        state.setQueueHead(this.requestQueueRepository.peek(showToken).map(PluginStateReader::sequenceName).orElse(null));
+      }
+      state.setQueueDepth(state.getQueueDepth() + depth);
+    }
+    return state;
+  }
+
+  /**
+   * Weak validator for a snapshot: two snapshots get the same tag only if every field is equal.
+   */
+  public static EntityTag etag(PluginState state) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.toString().getBytes(StandardCharsets.UTF_8));
+      return new EntityTag(HexFormat.of().formatHex(digest, 0, 12), true);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static PluginState fromDocument(Document show) {
+    Document preferences = show.get("preferences", new Document());
+    List<Document> requests = show.getList("requests", Document.class, List.of());
+    List<Document> votes = show.getList("votes", Document.class, List.of());
+    String viewerControlMode = preferences.getString("viewerControlMode");
+    return PluginState.builder()
+        .viewerControlMode(viewerControlMode != null ? viewerControlMode.toLowerCase() : null)
+        .viewerControlEnabled(preferences.getBoolean("viewerControlEnabled"))
+        .managedPsaEnabled(preferences.getBoolean("managePsa"))
+        .queueDepth(requests.size())
+        .queueHead(requests.stream()
+            .min(Comparator.comparing(request -> request.getInteger("position"), POSITION_ORDER))
+            .map(request -> nestedName(request, "sequence"))
+            .orElse(null))
+        //Same order as highestVotedPlaylist: most votes, then earliest vote time
+        .voteLeader(votes.stream()
+            .max(Comparator.<Document, Integer>comparing(vote -> vote.getInteger("votes", 0))
+                .thenComparing(vote -> vote.getDate("lastVoteTime"), VOTE_DATE_ORDER))
+            .map(vote -> Optional.ofNullable(nestedName(vote, "sequenceGroup")).orElse(nestedName(vote, "sequence")))
+            .orElse(null))
+        .build();
+  }
+
+  private static String sequenceName(Request request) {
+    return request.getSequence() != null ? request.getSequence().getName() : null;
+  }
+
+  private static String nestedName(Document parent, String field) {
+    Document nested = parent.get(field, Document.class);
+    return nested != null ? nested.getString("name") : null;
+  }
+
+  private static WebApplicationException showNotFound() {
+    return new WebApplicationException(
+        Response.status(Response.Status.NOT_FOUND)
+            .entity(PluginResponse.builder().message("Show not found for the provided token").build())
+            .build()
+    );
+  }
+}
@@ -0,0 +1,112 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.library.enums.ViewerControlMode;
+import com.remotefalcon.library.models.Preference;
+import com.remotefalcon.library.quarkus.entity.Show;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Recommended delay before the plugin polls again (poll.hint.enabled), returned as nextPollSeconds. A show with
+ * something waiting is polled at poll.hint.min; one whose polled endpoint cannot return anything, because viewer
+ * control is off or in the other mode, at poll.hint.max. In between, a show stays at poll.hint.idle until it has had
+ * nothing to serve for poll.hint.idle-after, then also backs off to poll.hint.max.
+ */
+@ApplicationScoped
+public class PollHints {
+
+  public enum Endpoint {
+    // nextPlaylistInQueue and updatePlaylistQueue; only jukebox mode fills the queue
+    QUEUE,
+    // highestVotedPlaylist; only voting mode collects votes
+    VOTES,
+    // Anything else FPP polls, such as viewerControlMode
+    OTHER
+  }
+
+  @Inject
+  @ConfigProperty(name = "poll.hint.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "poll.hint.min")
+  Duration min;
+
+  @Inject
+  @ConfigProperty(name = "poll.hint.idle")
+  Duration idle;
+
+  @Inject
+  @ConfigProperty(name = "poll.hint.max")
+  Duration max;
+
+  @Inject
+  @ConfigProperty(name = "poll.hint.idle-after")
+  Duration idleAfter;
+
+  @Inject
+  @ConfigProperty(name = "poll.hint.max-shows")
+  int maxShows;
+
+  LongSupplier clock = System::currentTimeMillis;
+
+  // When each show last had something to serve, in epoch millis
+  private final Map<String, Long> lastActive = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Seconds until the plugin should poll {@code endpoint} again, or null when hints are disabled. {@code pending} is
+   * whether the call found something to serve or left something waiting.
+   */
+  public Integer nextPollSeconds(Show show, Endpoint endpoint, boolean pending) {
+    if (!this.enabled) {
+      return null;
+    }
+    long now = this.clock.getAsLong();
+    if (!this.canChange(show.getPreferences(), endpoint)) {
+      return seconds(this.max);
+    }
+    if (pending) {
+      this.markActive(show.getShowToken(), now);
+      return seconds(this.min);
+    }
+    Long active = this.lastActive.get(show.getShowToken());
+    return active != null && now - active < this.idleAfter.toMillis() ? seconds(this.idle) : seconds(this.max);
+  }
+
+  private boolean canChange(Preference preferences, Endpoint endpoint) {
+    if (preferences == null || !Boolean.TRUE.equals(preferences.getViewerControlEnabled())) {
+      return endpoint == Endpoint.OTHER;
+    }
+    return switch (endpoint) {
+      case QUEUE -> preferences.getViewerControlMode() == ViewerControlMode.JUKEBOX;
+      case VOTES -> preferences.getViewerControlMode() == ViewerControlMode.VOTING;
+      case OTHER -> true;
+    };
+  }
+
+  private void markActive(String showToken, long now) {
+    if (this.lastActive.size() >= this.maxShows && !this.lastActive.containsKey(showToken)) {
+      // Shows idle for longer than idle-after get the same hint whether or not they are tracked
+      long cutoff = now - this.idleAfter.toMillis();
+      this.lastActive.values().removeIf(active -> active < cutoff);
+      if (this.lastActive.size() >= this.maxShows) {
+        return;
+      }
+    }
+    this.lastActive.put(showToken, now);
+  }
+
+  private static int seconds(Duration duration) {
+    return (int) Math.max(1, duration.toSeconds());
+  }
+}
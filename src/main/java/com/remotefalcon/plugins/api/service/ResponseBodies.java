@@ -0,0 +1,86 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remotefalcon.plugins.api.context.ShowContext;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON bodies of the polled read endpoints (response.cache.enabled), returned as a byte[] entity so they
+ * are written to the response buffer as-is instead of going through Jackson on every poll. The response is rebuilt
+ * on every call, since the show is also written by the control panel and the viewer site, and is only re-serialized
+ * if it differs from the last one kept for the same show and endpoint. Constant bodies such as {"message":"Success"}
+ * are serialized once at startup.
+ */
+@ApplicationScoped
+public class ResponseBodies {
+
+  private static final List<String> CONSTANT_MESSAGES = List.of("Success", "Queue Empty");
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  @ConfigProperty(name = "response.cache.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "response.cache.max-entries")
+  int maxEntries;
+
+  private final Map<Object, byte[]> constants = new ConcurrentHashMap<>();
+  // Endpoint, then show token
+  private final Map<String, Map<String, CachedBody>> bodies = new ConcurrentHashMap<>();
+
+  private record CachedBody(Object response, byte[] body) {
+  }
+
+  @PostConstruct
+  void init() {
+    for (String message : CONSTANT_MESSAGES) {
+      PluginResponse response = PluginResponse.builder().message(message).build();
+      this.constants.put(response, this.serialize(response));
+    }
+  }
+
+  /**
+   * The body for {@code endpoint} of the show in {@code showContext}, reusing the cached bytes when {@code call}
+   * returns a response equal to the cached one. Returns the serialized JSON as a byte[], or with the cache disabled, {@code call}'s result for
+   * the usual serialization. Not a {@code Response}, whose builder would allocate about as much as the serialization
+   * this saves.
+   */
+  public Object cached(ShowContext showContext, String endpoint, Supplier<?> call) {
+    if (!this.enabled) {
+      return call.get();
+    }
+    Map<String, CachedBody> endpointBodies = this.bodies.computeIfAbsent(endpoint, ignored -> new ConcurrentHashMap<>());
+    CachedBody cached = endpointBodies.get(showContext.getShowToken());
+    Object response = call.get();
+    byte[] body = this.constants.get(response);
+    if (body == null) {
+      body = cached != null && cached.response().equals(response) ? cached.body() : this.serialize(response);
+    }
+    boolean changed = cached == null || cached.body() != body;
+    if (changed && (cached != null || endpointBodies.size() < this.maxEntries)) {
+      endpointBodies.put(showContext.getShowToken(), new CachedBody(response, body));
+    }
+    return body;
+  }
+
+  private byte[] serialize(Object response) {
+    try {
+      return this.objectMapper.writeValueAsBytes(response);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize " + response.getClass().getSimpleName(), e);
+    }
+  }
+}
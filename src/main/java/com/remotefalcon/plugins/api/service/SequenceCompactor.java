@@ -0,0 +1,254 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.remotefalcon.library.models.PsaSequence;
+import com.remotefalcon.library.models.Sequence;
+import com.remotefalcon.library.models.SequenceGroup;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.cluster.JobLeases;
+import com.remotefalcon.plugins.api.repository.InactiveSequenceRepository;
+import com.remotefalcon.plugins.api.repository.RequestQueueRepository;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Purges sequences that have been inactive for longer than sequence.compaction.retention. syncPlaylists only marks
+ * sequences missing from the latest sync inactive, so without this they stay in the show forever. The retention clock
+ * is kept in the inactiveSequences collection, since Sequence has no timestamp of its own. A sequence is never
+ * removed while a group, PSA, vote or queued request still refers to it.
+ *
+ * <p>The background job (sequence.compaction.enabled) sweeps every show with inactive sequences, split into
+ * {@link JobLeases} partitions so each show is swept by one pod per run; the inline mode
+ * (sequence.compaction.inline) does the same for one show as part of its syncPlaylists write.
+ */
+@ApplicationScoped
+public class SequenceCompactor {
+
+  private static final Logger LOG = Logger.getLogger(SequenceCompactor.class);
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  InactiveSequenceRepository inactiveSequenceRepository;
+
+  @Inject
+  RequestQueueRepository requestQueueRepository;
+
+  @Inject
+  ShowLockManager showLockManager;
+
+  @Inject
+  JobLeases jobLeases;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "sequence.compaction.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "sequence.compaction.inline")
+  boolean inline;
+
+  @Inject
+  @ConfigProperty(name = "sequence.compaction.retention")
+  Duration retention;
+
+  @Inject
+  @ConfigProperty(name = "sequence.compaction.interval")
+  Duration interval;
+
+  private Counter sequencesRemoved;
+  private Counter bytesReclaimed;
+  private Counter documentsCompacted;
+
+  public record Result(int sequences, long bytes) {
+    static final Result NONE = new Result(0, 0);
+  }
+
+  @PostConstruct
+  void init() {
+    this.sequencesRemoved = Counter.builder("sequence.compaction.sequences")
+        .description("Inactive sequences purged from shows")
+        .register(this.meterRegistry);
+    this.bytesReclaimed = Counter.builder("sequence.compaction.bytes")
+        .description("Encoded bytes of purged inactive sequences")
+        .baseUnit("bytes")
+        .register(this.meterRegistry);
+    this.documentsCompacted = Counter.builder("sequence.compaction.documents")
+        .description("Show documents that had inactive sequences purged")
+        .register(this.meterRegistry);
+  }
+
+  public boolean isInline() {
+    return this.inline;
+  }
+
+  /**
+   * Starts or stops the retention clock for the show's sequences. Call with the show's lock held after its sequences
+   * changed. Does nothing unless compaction is enabled in either mode.
+   */
+  public void track(Show show) {
+    if (!this.enabled && !this.inline) {
+      return;
+    }
+    Set<String> inactive = new HashSet<>();
+    Set<String> active = new HashSet<>();
+    for (Sequence sequence : Optional.ofNullable(show.getSequences()).orElse(List.of())) {
+      if (sequence != null && sequence.getName() != null) {
+        (Boolean.FALSE.equals(sequence.getActive()) ? inactive : active).add(sequence.getName().toLowerCase());
+      }
+    }
+    this.inactiveSequenceRepository.track(show.getShowToken(), inactive, active);
+  }
+
+  /**
+   * Removes expired inactive sequences from the in-memory show; the caller persists its sequences.
+   */
+  public Result compactInline(Show show) {
+    List<Sequence> removed = this.expiredSequences(show);
+    if (removed.isEmpty()) {
+      return Result.NONE;
+    }
+    show.getSequences().removeAll(removed);
+    return this.recordRemoved(show.getShowToken(), removed);
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (this.enabled) {
+      this.showRepository.createTokenHashIndex();
+    }
+  }
+
+  @Scheduled(every = "${sequence.compaction.interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void compactAll() {
+    if (this.enabled) {
+      this.showRepository.assignTokenHashes();
+      this.jobLeases.runPartitioned("sequence-compaction", this.interval, this::compactPartition);
+    }
+  }
+
+  // Returns the number of shows that had sequences removed
+  int compactPartition(JobLeases.Partition partition) {
+    Iterable<Show> showsWithInactive = this.showRepository.findTokensInPartition(partition, Filters.eq("sequences.active", false));
+    int shows = 0;
+    int sequences = 0;
+    long bytes = 0;
+    for (Show candidate : showsWithInactive) {
+      try {
+        Result result = this.showLockManager.withLock(candidate.getShowToken(), () -> this.compact(candidate.getShowToken()));
+        if (result.sequences() > 0) {
+          shows++;
+          sequences += result.sequences();
+          bytes += result.bytes();
+        }
+      } catch (RuntimeException e) {
+        LOG.warnf(e, "Sequence compaction failed for showToken=%s", candidate.getShowToken());
+      }
+    }
+    if (shows > 0) {
+      LOG.infof("Sequence compaction removed %d inactive sequences (%d bytes) from %d shows in partition %d/%d",
+          sequences, bytes, shows, partition.index(), partition.count());
+    }
+    return shows;
+  }
+
+  // Caller holds the show's lock
+  private Result compact(String showToken) {
+    Optional<Show> show = this.showRepository.findByShowToken(showToken);
+    if (show.isEmpty()) {
+      return Result.NONE;
+    }
+    this.track(show.get());
+    List<Sequence> removed = this.expiredSequences(show.get());
+    if (removed.isEmpty()) {
+      return Result.NONE;
+    }
+    // Only pull entries that are still inactive, in case a sync reactivated one on another pod meanwhile
+    Set<String> names = removed.stream().map(Sequence::getName).collect(Collectors.toSet());
+    this.showRepository.mongoCollection().updateOne(Filters.eq("showToken", showToken),
+        Updates.pull("sequences", Filters.and(Filters.in("name", names), Filters.eq("active", false))));
+    this.documentsCompacted.increment();
+    return this.recordRemoved(showToken, removed);
+  }
+
+  private List<Sequence> expiredSequences(Show show) {
+    if (show.getSequences() == null || show.getSequences().isEmpty()) {
+      return List.of();
+    }
+    Set<String> expired = this.inactiveSequenceRepository.inactiveBefore(show.getShowToken(), Instant.now().minus(this.retention));
+    if (expired.isEmpty()) {
+      return List.of();
+    }
+    Set<String> queued = this.requestQueueRepository.isEnabled()
+        ? this.requestQueueRepository.queuedSequenceNames(show.getShowToken())
+        : Set.of();
+    return removableSequences(show, expired, queued);
+  }
+
+  /**
+   * Inactive sequences of the show whose lower-cased name is in {@code expired} and that nothing still refers to:
+   * not a member of an existing group, not a PSA, and not in a vote, an embedded request or {@code queuedNames}.
+   */
+  static List<Sequence> removableSequences(Show show, Set<String> expired, Collection<String> queuedNames) {
+    Set<String> groups = names(show.getSequenceGroups(), SequenceGroup::getName);
+    Set<String> referenced = new HashSet<>(names(show.getPsaSequences(), PsaSequence::getName));
+    referenced.addAll(names(show.getVotes(), vote -> vote.getSequence() != null ? vote.getSequence().getName() : null));
+    referenced.addAll(names(show.getRequests(), request -> request.getSequence() != null ? request.getSequence().getName() : null));
+    referenced.addAll(names(queuedNames, name -> name));
+    return show.getSequences().stream()
+        .filter(Objects::nonNull)
+        .filter(sequence -> Boolean.FALSE.equals(sequence.getActive()) && sequence.getName() != null)
+        .filter(sequence -> expired.contains(sequence.getName().toLowerCase()))
+        .filter(sequence -> !referenced.contains(sequence.getName().toLowerCase()))
+        .filter(sequence -> StringUtils.isEmpty(sequence.getGroup()) || !groups.contains(sequence.getGroup().toLowerCase()))
+        .toList();
+  }
+
+  private static <T> Set<String> names(Collection<T> items, Function<T, String> name) {
+    return Optional.ofNullable(items).stream()
+        .flatMap(Collection::stream)
+        .filter(Objects::nonNull)
+        .map(name)
+        .filter(Objects::nonNull)
+        .map(String::toLowerCase)
+        .collect(Collectors.toSet());
+  }
+
+  private Result recordRemoved(String showToken, List<Sequence> removed) {
+    Codec<Sequence> codec = this.showRepository.mongoCollection().getCodecRegistry().get(Sequence.class);
+    long bytes = removed.stream()
+        .mapToLong(sequence -> new RawBsonDocument(sequence, codec).getByteBuffer().remaining())
+        .sum();
+    this.inactiveSequenceRepository.forget(showToken, removed.stream().map(sequence -> sequence.getName().toLowerCase()).toList());
+    this.sequencesRemoved.increment(removed.size());
+    this.bytesReclaimed.increment(bytes);
+    return new Result(removed.size(), bytes);
+  }
+}
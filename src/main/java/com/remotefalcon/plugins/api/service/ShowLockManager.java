@@ -0,0 +1,90 @@
+package com.remotefalcon.plugins.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes mutating plugin calls for the same show within this pod. Shows are hashed onto a fixed number of lock
+ * stripes, so unrelated shows rarely wait on each other. Each stripe also carries a generation that is bumped after
+ * every locked write: a caller whose show was read before the current generation knows another writer got in first
+ * and re-reads before modifying anything.
+ */
+@ApplicationScoped
+public class ShowLockManager {
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  @Inject
+  @ConfigProperty(name = "show.lock.stripes")
+  int stripes;
+
+  private ReentrantLock[] locks;
+  private AtomicLongArray generations;
+  private Timer lockWait;
+  private Counter lockContended;
+
+  @PostConstruct
+  void init() {
+    this.locks = new ReentrantLock[this.stripes];
+    for (int i = 0; i < this.stripes; i++) {
+      this.locks[i] = new ReentrantLock();
+    }
+    this.generations = new AtomicLongArray(this.stripes);
+    this.lockWait = Timer.builder("show.lock.wait")
+        .description("Time spent waiting for the per-show lock")
+        .publishPercentileHistogram()
+        .register(this.meterRegistry);
+    this.lockContended = Counter.builder("show.lock.contended")
+        .description("Per-show lock acquisitions that had to wait for another holder")
+        .register(this.meterRegistry);
+  }
+
+  /**
+   * Generation of the show's stripe. Take it before reading the show so a write that lands during the read is seen.
+   */
+  public long stamp(String showToken) {
+    return this.generations.get(this.stripe(showToken));
+  }
+
+  /**
+   * Whether a show read at {@code stamp} may have been modified by another locked write since.
+   */
+  public boolean isStale(String showToken, long stamp) {
+    return this.generations.get(this.stripe(showToken)) != stamp;
+  }
+
+  public <T> T withLock(String showToken, Supplier<T> action) {
+    int stripe = this.stripe(showToken);
+    ReentrantLock lock = this.locks[stripe];
+    if (!lock.tryLock()) {
+      this.lockContended.increment();
+      long start = System.nanoTime();
+      lock.lock();
+      this.lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    } else {
+      this.lockWait.record(0, TimeUnit.NANOSECONDS);
+    }
+    try {
+      return action.get();
+    } finally {
+      this.generations.incrementAndGet(stripe);
+      lock.unlock();
+    }
+  }
+
+  private int stripe(String showToken) {
+    int hash = showToken == null ? 0 : showToken.hashCode();
+    return Math.floorMod(hash ^ (hash >>> 16), this.stripes);
+  }
+}
@@ -0,0 +1,102 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.plugins.api.repository.RequestQueueRepository;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import org.bson.RawBsonDocument;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conditional reads for the small read endpoints (conditional.get.enabled). Each endpoint's tag is a hash of just the
+ * show fields its response is built from, read with a projection, so it changes whichever service writes them and a
+ * matching If-None-Match can be answered with 304 without loading the show. Not used for updatePlaylistQueue while the
+ * queue lives in its own collection, since its response then does not come from the show.
+ */
+@ApplicationScoped
+public class StateTags {
+
+  private static final List<String> PREFERENCES_FIELDS = List.of("showSubdomain", "preferences.viewerControlMode");
+  private static final List<String> QUEUE_FIELDS = List.of("requests.position");
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  RequestQueueRepository requestQueueRepository;
+
+  @Inject
+  @ConfigProperty(name = "conditional.get.enabled")
+  boolean enabled;
+
+  // Endpoint, then the show fields its response reads
+  private Map<String, List<String>> taggedFields = Map.of();
+
+  @PostConstruct
+  void init() {
+    if (!this.enabled) {
+      return;
+    }
+    this.taggedFields = this.requestQueueRepository.isEnabled()
+        ? Map.of("viewerControlMode", PREFERENCES_FIELDS, "remotePreferences", PREFERENCES_FIELDS)
+        : Map.of("viewerControlMode", PREFERENCES_FIELDS, "remotePreferences", PREFERENCES_FIELDS,
+            "updatePlaylistQueue", QUEUE_FIELDS);
+  }
+
+  public boolean isTagged(String path) {
+    return this.taggedFields.containsKey(endpoint(path));
+  }
+
+  /**
+   * The current tag of the show's fields read by the endpoint at {@code path}, or empty if the show does not exist.
+   */
+  public Optional<EntityTag> current(String path, String showToken) {
+    return this.showRepository.findFields(showToken, this.taggedFields.get(endpoint(path))).map(StateTags::etag);
+  }
+
+  public static EntityTag etag(RawBsonDocument fields) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(fields.getByteBuffer().asNIO());
+      // Weak: bodies may differ in fields such as nextPollSeconds that do not come from the show
+      return new EntityTag(HexFormat.of().formatHex(digest.digest(), 0, 12), true);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Whether an If-None-Match header value matches {@code etag}, using the weak comparison RFC 9110 asks for here.
+   */
+  public static boolean matches(String ifNoneMatch, EntityTag etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("\"" + etag.getValue() + "\"")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String endpoint(String path) {
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
+}
@@ -0,0 +1,214 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.remotefalcon.library.models.Stat;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.cluster.JobLeases;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import com.remotefalcon.plugins.api.repository.VotingWinRollup;
+import com.remotefalcon.plugins.api.repository.VotingWinRollupRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Daily voting-win rollups (votingwin.rollup.enabled). A scheduled job moves stats.votingWin entries older than
+ * votingwin.rollup.keep-raw into one votingWinRollups document per show and day, holding a win count per sequence, and
+ * trims them from the show. Shows are split into {@link JobLeases} partitions that run in parallel on a fixed-size
+ * thread pool.
+ *
+ * <p>Each rollup document records the time it covers entries up to. Entries before that are never counted again, so a
+ * run that dies between writing the rollup and trimming the show cannot inflate the counts; the leftovers are trimmed
+ * by the next run.
+ */
+@ApplicationScoped
+public class VotingWinRollups {
+
+  private static final Logger LOG = Logger.getLogger(VotingWinRollups.class);
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  VotingWinRollupRepository votingWinRollupRepository;
+
+  @Inject
+  ShowLockManager showLockManager;
+
+  @Inject
+  JobLeases jobLeases;
+
+  @Inject
+  @ConfigProperty(name = "votingwin.rollup.enabled")
+  boolean enabled;
+
+  @Inject
+  @ConfigProperty(name = "votingwin.rollup.keep-raw")
+  Duration keepRaw;
+
+  @Inject
+  @ConfigProperty(name = "votingwin.rollup.lease")
+  Duration lease;
+
+  @Inject
+  @ConfigProperty(name = "votingwin.rollup.parallelism")
+  int parallelism;
+
+  private ThreadPoolExecutor pool;
+
+  @PostConstruct
+  void init() {
+    int threads = this.parallelism > 0 ? this.parallelism : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    // Partitions block on Mongo and the show lock, so they get plain threads; the scheduler skips overlapping runs, so
+    // the queue never holds more than one run's partitions
+    this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+      Thread thread = new Thread(runnable, "votingwin-rollup-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    this.pool.shutdownNow();
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (this.enabled) {
+      this.showRepository.createTokenHashIndex();
+    }
+  }
+
+  /**
+   * Voting wins of the show since midnight, counting both today's rollup and the entries still in the show.
+   */
+  public int winsToday(Show show) {
+    LocalDateTime midnight = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
+    List<Stat.VotingWin> votingWins = Optional.ofNullable(show.getStats())
+        .map(Stat::getVotingWin)
+        .orElse(List.of());
+    if (!this.enabled) {
+      return (int) votingWins.stream()
+          .filter(stat -> stat.getDateTime().isAfter(midnight))
+          .count();
+    }
+    Optional<VotingWinRollup> rollup = this.votingWinRollupRepository.findDay(show.getShowToken(), midnight.toLocalDate());
+    LocalDateTime rolledUpTo = rollup.map(VotingWinRollup::getRolledUpTo).orElse(null);
+    return rollup.map(VotingWinRollup::getTotal).orElse(0) + (int) votingWins.stream()
+        .filter(stat -> stat.getDateTime() != null && stat.getDateTime().isAfter(midnight))
+        .filter(stat -> rolledUpTo == null || !stat.getDateTime().isBefore(rolledUpTo))
+        .count();
+  }
+
+  @Scheduled(cron = "${votingwin.rollup.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void rollupAll() {
+    if (!this.enabled) {
+      return;
+    }
+    LocalDateTime cutoff = LocalDateTime.now().minus(this.keepRaw);
+    this.showRepository.assignTokenHashes();
+    this.jobLeases.runPartitioned("votingwin-rollup", this.lease, this.pool, partition -> this.rollupPartition(partition, cutoff));
+  }
+
+  // Returns the number of voting-win entries rolled up
+  int rollupPartition(JobLeases.Partition partition, LocalDateTime cutoff) {
+    Iterable<Show> candidates = this.showRepository.findTokensInPartition(partition, Filters.lt("stats.votingWin.dateTime", cutoff));
+    int entries = 0;
+    for (Show candidate : candidates) {
+      try {
+        entries += this.showLockManager.withLock(candidate.getShowToken(), () -> this.rollup(candidate.getShowToken(), cutoff));
+      } catch (RuntimeException e) {
+        LOG.warnf(e, "Voting win rollup failed for showToken=%s", candidate.getShowToken());
+      }
+    }
+    return entries;
+  }
+
+  // Caller holds the show's lock
+  private int rollup(String showToken, LocalDateTime cutoff) {
+    Show show = this.showRepository.mongoCollection()
+        .find(Filters.eq("showToken", showToken))
+        .projection(Projections.include("showToken", "stats.votingWin"))
+        .first();
+    if (show == null || show.getStats() == null || show.getStats().getVotingWin() == null) {
+      return 0;
+    }
+    Map<LocalDate, List<Stat.VotingWin>> byDay = show.getStats().getVotingWin().stream()
+        .filter(Objects::nonNull)
+        .filter(stat -> stat.getDateTime() != null && stat.getDateTime().isBefore(cutoff))
+        .collect(Collectors.groupingBy(stat -> stat.getDateTime().toLocalDate(), TreeMap::new, Collectors.toList()));
+    int entries = 0;
+    for (Map.Entry<LocalDate, List<Stat.VotingWin>> day : byDay.entrySet()) {
+      Optional<VotingWinRollup> previous = this.votingWinRollupRepository.findDay(showToken, day.getKey());
+      VotingWinRollup next = merge(showToken, day.getKey(), previous, day.getValue(), cutoff);
+      int added = next.getTotal() - previous.map(VotingWinRollup::getTotal).orElse(0);
+      if (added > 0 && !this.votingWinRollupRepository.replace(previous, next)) {
+        // Leave the entries in the show; the next run counts them against the newer rollup
+        LOG.warnf("Voting win rollup for showToken=%s, day=%s changed concurrently, skipping", showToken, day.getKey());
+        return entries;
+      }
+      entries += added;
+    }
+    this.showRepository.mongoCollection().updateOne(Filters.eq("showToken", showToken),
+        Updates.pull("stats.votingWin", Filters.lt("dateTime", cutoff)));
+    return entries;
+  }
+
+  /**
+   * The day's rollup after adding the entries in {@code dayWins} that {@code previous} does not cover yet, covering
+   * entries up to {@code cutoff}.
+   */
+  static VotingWinRollup merge(String showToken, LocalDate day, Optional<VotingWinRollup> previous,
+                               List<Stat.VotingWin> dayWins, LocalDateTime cutoff) {
+    LocalDateTime coveredUpTo = previous.map(VotingWinRollup::getRolledUpTo).orElse(null);
+    Map<String, Integer> wins = new HashMap<>();
+    previous.map(VotingWinRollup::getWins).orElse(List.of())
+        .forEach(sequenceWins -> wins.merge(sequenceWins.getName(), sequenceWins.getWins(), Integer::sum));
+    int total = previous.map(VotingWinRollup::getTotal).orElse(0);
+    for (Stat.VotingWin stat : dayWins) {
+      if (coveredUpTo == null || !stat.getDateTime().isBefore(coveredUpTo)) {
+        wins.merge(stat.getName(), 1, Integer::sum);
+        total++;
+      }
+    }
+    List<VotingWinRollup.SequenceWins> sequenceWins = new ArrayList<>();
+    wins.forEach((name, count) -> sequenceWins.add(VotingWinRollup.SequenceWins.builder().name(name).wins(count).build()));
+    sequenceWins.sort(Comparator.comparing(VotingWinRollup.SequenceWins::getWins).reversed()
+        .thenComparing(VotingWinRollup.SequenceWins::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+    return VotingWinRollup.builder()
+        .id(VotingWinRollup.id(showToken, day))
+        .showToken(showToken)
+        .day(day)
+        .total(total)
+        .wins(sequenceWins)
+        .rolledUpTo(coveredUpTo != null && coveredUpTo.isAfter(cutoff) ? coveredUpTo : cutoff)
+        .build();
+  }
+}
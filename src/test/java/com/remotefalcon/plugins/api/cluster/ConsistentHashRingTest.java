@@ -0,0 +1,58 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+  private static final int SHOWS = 20_000;
+
+  @Test
+  void owner_isStableRegardlessOfNodeOrder() {
+    ConsistentHashRing ring = ConsistentHashRing.of(List.of("http://a:8080", "http://b:8080", "http://c:8080"), 128);
+    ConsistentHashRing reordered = ConsistentHashRing.of(List.of("http://c:8080", "http://a:8080", "http://b:8080"), 128);
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(ring.owner("show-" + i), reordered.owner("show-" + i));
+    }
+  }
+
+  @Test
+  void owner_spreadsShowsEvenly() {
+    ConsistentHashRing ring = ConsistentHashRing.of(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < SHOWS; i++) {
+      counts.merge(ring.owner("show-" + i), 1, Integer::sum);
+    }
+
+    assertEquals(4, counts.size());
+    counts.values().forEach(count -> assertTrue(count > SHOWS / 4 * 0.75 && count < SHOWS / 4 * 1.25, "uneven share " + count));
+  }
+
+  @Test
+  void addingANode_movesAboutOneNthOfShows_allToTheNewNode() {
+    ConsistentHashRing before = ConsistentHashRing.of(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+    ConsistentHashRing after = ConsistentHashRing.of(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080", "http://e:8080"), 128);
+
+    int moved = 0;
+    for (int i = 0; i < SHOWS; i++) {
+      String token = "show-" + i;
+      if (!before.owner(token).equals(after.owner(token))) {
+        moved++;
+        assertEquals("http://e:8080", after.owner(token));
+      }
+    }
+    double fraction = moved / (double) SHOWS;
+    assertTrue(fraction > 0.15 && fraction < 0.25, "moved fraction " + fraction);
+  }
+
+  @Test
+  void owner_isNullOnEmptyRing() {
+    assertNull(ConsistentHashRing.of(List.of(), 128).owner("show"));
+  }
+}
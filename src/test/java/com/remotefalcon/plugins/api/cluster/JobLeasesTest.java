@@ -0,0 +1,148 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JobLeasesTest {
+
+  private JobLeases jobLeases;
+  private MongoCollection<Document> leases;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setup() {
+    MongoClient mongoClient = mock(MongoClient.class);
+    MongoDatabase database = mock(MongoDatabase.class);
+    leases = mock(MongoCollection.class);
+    when(mongoClient.getDatabase("test")).thenReturn(database);
+    when(database.getCollection(JobLeases.LEASE_COLLECTION)).thenReturn(leases);
+
+    meterRegistry = new SimpleMeterRegistry();
+    jobLeases = new JobLeases();
+    jobLeases.mongoClient = mongoClient;
+    jobLeases.meterRegistry = meterRegistry;
+    jobLeases.database = "test";
+    jobLeases.enabled = true;
+    jobLeases.partitions = 4;
+    jobLeases.init();
+  }
+
+  @Test
+  void partitionOf_coversEveryTokenOnceAndSpreadsThem() {
+    int[] counts = new int[8];
+    for (int i = 0; i < 8000; i++) {
+      String token = "show-" + i;
+      int partition = JobLeases.partitionOf(token, 8);
+      assertEquals(partition, JobLeases.partitionOf(token, 8));
+      counts[partition]++;
+    }
+    for (int count : counts) {
+      assertTrue(count > 800 && count < 1200, "uneven partition: " + count);
+    }
+  }
+
+  @Test
+  void partition_hashRangeMatchesContains() {
+    for (int count : new int[]{1, 3, 16}) {
+      assertEquals(0, new JobLeases.Partition(0, count).lowerHash());
+      assertEquals(1L << 32, new JobLeases.Partition(count - 1, count).upperHash());
+      for (int i = 0; i < 2000; i++) {
+        String token = "show-" + i;
+        long hash = JobLeases.tokenHash(token);
+        for (int index = 0; index < count; index++) {
+          JobLeases.Partition partition = new JobLeases.Partition(index, count);
+          boolean inRange = hash >= partition.lowerHash() && hash < partition.upperHash();
+          assertEquals(partition.contains(token), inRange, token + " in partition " + index + "/" + count);
+        }
+      }
+    }
+  }
+
+  @Test
+  void runExclusive_runsWhenLeaseAcquired() {
+    boolean ran = jobLeases.runExclusive("rollup", Duration.ofMinutes(1), () -> 5);
+
+    assertTrue(ran);
+    assertEquals(5.0, meterRegistry.get("jobs.items").tag("job", "rollup").counter().count());
+    assertEquals(1, meterRegistry.get("jobs.duration").tag("job", "rollup").timer().count());
+  }
+
+  @Test
+  void runExclusive_releasesTheLeaseAfterTheRun() {
+    assertThrows(IllegalStateException.class, () -> jobLeases.runExclusive("rollup", Duration.ofMinutes(1), () -> {
+      throw new IllegalStateException("boom");
+    }));
+
+    verify(leases).updateOne(any(Bson.class), any(Bson.class));
+  }
+
+  @Test
+  void runExclusive_skipsWhenLeaseHeldElsewhere() {
+    when(leases.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class)))
+        .thenThrow(duplicateKey());
+
+    boolean ran = jobLeases.runExclusive("rollup", Duration.ofMinutes(1), () -> fail("should not run"));
+
+    assertFalse(ran);
+    assertEquals(1.0, meterRegistry.get("jobs.lease.acquisitions").tag("result", "held").counter().count());
+  }
+
+  @Test
+  void runPartitioned_runsOnlyAcquiredPartitions() {
+    when(leases.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class)))
+        .thenReturn(null)
+        .thenThrow(duplicateKey())
+        .thenReturn(null)
+        .thenThrow(duplicateKey());
+    List<Integer> ran = new ArrayList<>();
+
+    int count = jobLeases.runPartitioned("compaction", Duration.ofMinutes(1), partition -> {
+      ran.add(partition.index());
+      return 0;
+    });
+
+    // Partitions are tried from a random starting point, one lease at a time
+    assertEquals(2, count);
+    assertEquals(2, ran.size());
+    assertEquals(2, Math.floorMod(ran.get(1) - ran.get(0), 4));
+    verify(leases, times(2)).updateOne(any(Bson.class), any(Bson.class));
+  }
+
+  @Test
+  void runPartitioned_runsEverythingWhenDisabled() {
+    jobLeases.enabled = false;
+    List<Integer> ran = new ArrayList<>();
+
+    jobLeases.runPartitioned("compaction", Duration.ofMinutes(1), partition -> {
+      ran.add(partition.index());
+      return 0;
+    });
+
+    assertEquals(List.of(0, 1, 2, 3), ran.stream().sorted().toList());
+    verifyNoInteractions(leases);
+  }
+
+  private static MongoCommandException duplicateKey() {
+    return new MongoCommandException(new BsonDocument("code", new BsonInt32(11000)), new ServerAddress());
+  }
+}
@@ -0,0 +1,95 @@
+package com.remotefalcon.plugins.api.cluster;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ShowOwnershipFilterTest {
+
+  @Test
+  void isTrustedForward_requiresTheConfiguredSecret() {
+    ShowOwnership ownership = new ShowOwnership();
+    ownership.forwardSecret = Optional.of("s3cret");
+
+    assertTrue(ownership.isTrustedForward("s3cret"));
+    assertFalse(ownership.isTrustedForward("true"));
+    assertFalse(ownership.isTrustedForward(null));
+
+    ownership.forwardSecret = Optional.of(" ");
+    assertFalse(ownership.canForward());
+    assertFalse(ownership.isTrustedForward(" "));
+  }
+
+  @Test
+  void filter_routesCallsThatSpoofTheForwardedHeader() throws Exception {
+    ShowOwnershipFilter filter = filter("s3cret");
+    when(filter.showOwnership.ownerOf("show")).thenReturn(Optional.empty());
+    ContainerRequestContext request = request("true", new byte[0]);
+
+    filter.filter(request);
+
+    verify(filter.showOwnership).ownerOf("show");
+    assertNull(request.getHeaders().getFirst(ShowOwnershipFilter.FORWARDED_HEADER));
+  }
+
+  @Test
+  void filter_servesTrustedForwardsLocally() throws Exception {
+    ShowOwnershipFilter filter = filter("s3cret");
+
+    filter.filter(request("s3cret", new byte[0]));
+
+    verify(filter.showOwnership, never()).ownerOf(any());
+  }
+
+  @Test
+  void filter_rejectsOversizedBodiesBeforeForwarding() throws Exception {
+    ShowOwnershipFilter filter = filter("s3cret");
+    when(filter.showOwnership.ownerOf("show")).thenReturn(Optional.of("http://owner:8080"));
+    ContainerRequestContext request = request(null, new byte[17]);
+
+    filter.filter(request);
+
+    ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+    verify(request).abortWith(response.capture());
+    assertEquals(413, response.getValue().getStatus());
+    verify(filter.showOwnership, never()).httpClient();
+  }
+
+  private static ShowOwnershipFilter filter(String secret) {
+    ShowOwnership ownership = mock(ShowOwnership.class);
+    when(ownership.isEnabled()).thenReturn(true);
+    when(ownership.canForward()).thenReturn(true);
+    when(ownership.isTrustedForward(any())).thenAnswer(call -> secret.equals(call.getArgument(0)));
+    ShowOwnershipFilter filter = new ShowOwnershipFilter();
+    filter.showOwnership = ownership;
+    filter.maxBodyBytes = 16;
+    return filter;
+  }
+
+  private static ContainerRequestContext request(String forwarded, byte[] body) {
+    MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+    headers.putSingle("showtoken", "show");
+    if (forwarded != null) {
+      headers.putSingle(ShowOwnershipFilter.FORWARDED_HEADER, forwarded);
+    }
+    UriInfo uriInfo = mock(UriInfo.class);
+    when(uriInfo.getPath()).thenReturn("/nextPlaylistInQueue");
+    ContainerRequestContext request = mock(ContainerRequestContext.class);
+    when(request.getUriInfo()).thenReturn(uriInfo);
+    when(request.getHeaders()).thenReturn(headers);
+    when(request.getHeaderString(any())).thenAnswer(call -> headers.getFirst(call.getArgument(0)));
+    when(request.hasEntity()).thenReturn(body.length > 0);
+    when(request.getEntityStream()).thenReturn(new ByteArrayInputStream(body));
+    return request;
+  }
+}
@@ -23,7 +23,7 @@ class PluginControllerTest {
   @BeforeEach
   void setupShowTokenMock() {
     // By default, authorize all requests with a known token
-    when(showRepository.findByShowToken(TEST_TOKEN)).thenReturn(java.util.Optional.of(new Show()));
+    when(showRepository.findViewByShowToken(TEST_TOKEN)).thenReturn(java.util.Optional.of(new Show()));
   }
 
   private static final String TEST_TOKEN = "test-token";
@@ -40,7 +40,7 @@ class PluginControllerTest {
         .nextPlaylist("Playlist A")
         .playlistIndex(2)
         .build();
-    when(pluginService.nextPlaylistInQueue()).thenReturn(expected);
+    when(pluginService.nextPlaylistInQueue(any())).thenReturn(expected);
 
     NextPlaylistResponse actual =
         given()
@@ -52,13 +52,13 @@ class PluginControllerTest {
             .extract().as(NextPlaylistResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).nextPlaylistInQueue();
+    verify(pluginService).nextPlaylistInQueue(any());
   }
 
   @Test
   void testUpdatePlaylistQueue() {
     PluginResponse expected = PluginResponse.builder().message("ok").build();
-    when(pluginService.updatePlaylistQueue()).thenReturn(expected);
+    when(pluginService.updatePlaylistQueue(any())).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -70,7 +70,7 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).updatePlaylistQueue();
+    verify(pluginService).updatePlaylistQueue(any());
   }
 
   @Test
@@ -82,7 +82,7 @@ class PluginControllerTest {
         ))
         .build();
     PluginResponse expected = PluginResponse.builder().message("synced").build();
-    when(pluginService.syncPlaylists(request)).thenReturn(expected);
+    when(pluginService.syncPlaylists(any(), eq(request))).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -95,14 +95,14 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).syncPlaylists(request);
+    verify(pluginService).syncPlaylists(any(), eq(request));
   }
 
   @Test
   void testUpdateWhatsPlaying() {
     UpdateWhatsPlayingRequest request = UpdateWhatsPlayingRequest.builder().playlist("NowPlaying").build();
     PluginResponse expected = PluginResponse.builder().currentPlaylist("NowPlaying").build();
-    when(pluginService.updateWhatsPlaying(request)).thenReturn(expected);
+    when(pluginService.updateWhatsPlaying(any(), eq(request))).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -115,14 +115,14 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).updateWhatsPlaying(request);
+    verify(pluginService).updateWhatsPlaying(any(), eq(request));
   }
 
   @Test
   void testUpdateNextScheduledSequence() {
     UpdateNextScheduledRequest request = UpdateNextScheduledRequest.builder().sequence("Seq1").build();
     PluginResponse expected = PluginResponse.builder().nextScheduledSequence("Seq1").build();
-    when(pluginService.updateNextScheduledSequence(request)).thenReturn(expected);
+    when(pluginService.updateNextScheduledSequence(any(), eq(request))).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -135,13 +135,13 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).updateNextScheduledSequence(request);
+    verify(pluginService).updateNextScheduledSequence(any(), eq(request));
   }
 
   @Test
   void testViewerControlMode() {
     PluginResponse expected = PluginResponse.builder().viewerControlMode("VOTE").build();
-    when(pluginService.viewerControlMode()).thenReturn(expected);
+    when(pluginService.viewerControlMode(any())).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -152,7 +152,7 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).viewerControlMode();
+    verify(pluginService).viewerControlMode(any());
   }
 
   @Test
@@ -161,7 +161,7 @@ class PluginControllerTest {
         .winningPlaylist("Winner")
         .playlistIndex(3)
         .build();
-    when(pluginService.highestVotedPlaylist()).thenReturn(expected);
+    when(pluginService.highestVotedPlaylist(any())).thenReturn(expected);
 
     HighestVotedPlaylistResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -172,14 +172,14 @@ class PluginControllerTest {
         .extract().as(HighestVotedPlaylistResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).highestVotedPlaylist();
+    verify(pluginService).highestVotedPlaylist(any());
   }
 
   @Test
   void testPluginVersion() {
     PluginVersion request = PluginVersion.builder().pluginVersion("1.2.3").fppVersion("7.0").build();
     PluginResponse expected = PluginResponse.builder().message("ok").build();
-    when(pluginService.pluginVersion(request)).thenReturn(expected);
+    when(pluginService.pluginVersion(any(), eq(request))).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -192,7 +192,7 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).pluginVersion(request);
+    verify(pluginService).pluginVersion(any(), eq(request));
   }
 
   @Test
@@ -202,7 +202,7 @@ class PluginControllerTest {
         .remoteSubdomain("myshow")
         .interruptSchedule(true)
         .build();
-    when(pluginService.remotePreferences()).thenReturn(expected);
+    when(pluginService.remotePreferences(any())).thenReturn(expected);
 
     RemotePreferenceResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -213,13 +213,13 @@ class PluginControllerTest {
         .extract().as(RemotePreferenceResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).remotePreferences();
+    verify(pluginService).remotePreferences(any());
   }
 
   @Test
   void testPurgeQueue() {
     PluginResponse expected = PluginResponse.builder().message("purged").build();
-    when(pluginService.purgeQueue()).thenReturn(expected);
+    when(pluginService.purgeQueue(any())).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -230,13 +230,13 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).purgeQueue();
+    verify(pluginService).purgeQueue(any());
   }
 
   @Test
   void testResetAllVotes() {
     PluginResponse expected = PluginResponse.builder().message("reset").build();
-    when(pluginService.resetAllVotes()).thenReturn(expected);
+    when(pluginService.resetAllVotes(any())).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -247,13 +247,13 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).resetAllVotes();
+    verify(pluginService).resetAllVotes(any());
   }
 
   @Test
   void testToggleViewerControl() {
     PluginResponse expected = PluginResponse.builder().viewerControlEnabled(true).build();
-    when(pluginService.toggleViewerControl()).thenReturn(expected);
+    when(pluginService.toggleViewerControl(any())).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -265,14 +265,14 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).toggleViewerControl();
+    verify(pluginService).toggleViewerControl(any());
   }
 
   @Test
   void testUpdateViewerControl() {
     ViewerControlRequest request = ViewerControlRequest.builder().viewerControlEnabled("true").build();
     PluginResponse expected = PluginResponse.builder().viewerControlEnabled(true).build();
-    when(pluginService.updateViewerControl(request)).thenReturn(expected);
+    when(pluginService.updateViewerControl(any(), eq(request))).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -285,14 +285,14 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).updateViewerControl(request);
+    verify(pluginService).updateViewerControl(any(), eq(request));
   }
 
   @Test
   void testUpdateManagedPsa() {
     ManagedPSARequest request = ManagedPSARequest.builder().managedPsaEnabled("true").build();
     PluginResponse expected = PluginResponse.builder().managedPsaEnabled(true).build();
-    when(pluginService.updateManagedPsa(request)).thenReturn(expected);
+    when(pluginService.updateManagedPsa(any(), eq(request))).thenReturn(expected);
 
     PluginResponse actual = given()
         .header("showtoken", TEST_TOKEN)
@@ -305,13 +305,13 @@ class PluginControllerTest {
         .extract().as(PluginResponse.class);
 
     assertEquals(expected, actual);
-    verify(pluginService).updateManagedPsa(request);
+    verify(pluginService).updateManagedPsa(any(), eq(request));
   }
 
   // @Test
   // void testFppHeartbeat() {
   //   // No return body; expect 204 No Content
-  //   doNothing().when(pluginService).fppHeartbeat();
+  //   doNothing().when(pluginService).fppHeartbeat(any());
 
   //   given()
   //       .header("showtoken", TEST_TOKEN)
@@ -321,7 +321,7 @@ class PluginControllerTest {
   //       .then()
   //       .statusCode(204);
 
-  //   verify(pluginService).fppHeartbeat();
+  //   verify(pluginService).fppHeartbeat(any());
   // }
 
   @Test
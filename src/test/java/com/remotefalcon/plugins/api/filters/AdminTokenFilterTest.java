@@ -0,0 +1,51 @@
+package com.remotefalcon.plugins.api.filters;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdminTokenFilterTest {
+
+  @Test
+  void filter_requiresTheConfiguredToken() {
+    AdminTokenFilter filter = new AdminTokenFilter();
+    filter.adminToken = Optional.of("s3cret");
+
+    assertEquals(401, abortStatus(filter, null));
+    assertEquals(401, abortStatus(filter, "wrong"));
+    assertEquals(-1, abortStatus(filter, "s3cret"));
+  }
+
+  @Test
+  void filter_hidesTheEndpointsWithoutAToken() {
+    AdminTokenFilter filter = new AdminTokenFilter();
+    filter.adminToken = Optional.empty();
+
+    assertEquals(404, abortStatus(filter, "anything"));
+  }
+
+  @Test
+  void isAdminPath_matchesOnlyTheDebugPrefix() {
+    assertTrue(AdminTokenFilter.isAdminPath("/debug/largestShows"));
+    assertTrue(AdminTokenFilter.isAdminPath("debug/throttledShows"));
+    assertFalse(AdminTokenFilter.isAdminPath("/nextPlaylistInQueue/debug/x"));
+    assertFalse(AdminTokenFilter.isAdminPath("/debugger"));
+    assertFalse(AdminTokenFilter.isAdminPath("/actuator/health"));
+  }
+
+  // The status the filter aborted with, or -1 if it let the call through
+  private static int abortStatus(AdminTokenFilter filter, String header) {
+    ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+    when(requestContext.getHeaderString(AdminTokenFilter.ADMIN_TOKEN_HEADER)).thenReturn(header);
+    filter.filter(requestContext);
+    ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+    verify(requestContext, atMost(1)).abortWith(response.capture());
+    return response.getAllValues().isEmpty() ? -1 : response.getValue().getStatus();
+  }
+}
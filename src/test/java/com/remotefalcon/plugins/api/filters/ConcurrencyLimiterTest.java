@@ -0,0 +1,127 @@
+package com.remotefalcon.plugins.api.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimiterTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+  private ConcurrencyLimiter limiter;
+  private SimpleMeterRegistry meterRegistry;
+  private final AtomicLong now = new AtomicLong();
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    limiter = new ConcurrencyLimiter();
+    limiter.meterRegistry = meterRegistry;
+    limiter.enabled = true;
+    limiter.initialLimit = 10;
+    limiter.minLimit = 2;
+    limiter.maxLimit = 20;
+    limiter.latencyTarget = Duration.ofMillis(100);
+    limiter.backoff = 0.5;
+    limiter.clock = now::get;
+    limiter.init();
+  }
+
+  @Test
+  void tryAcquire_shedsLowPriorityFirst() {
+    for (int i = 0; i < 5; i++) {
+      assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.LOW));
+    }
+
+    assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.LOW));
+    assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL));
+    assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL));
+    assertEquals(1.0, meterRegistry.get("plugin.concurrency.shed").tag("priority", "low").counter().count());
+  }
+
+  @Test
+  void tryAcquire_rejectsEverythingAtTheLimit() {
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL));
+    }
+
+    assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL));
+    assertEquals(10, limiter.inFlight());
+  }
+
+  @Test
+  void release_growsTheLimitWhileCallsAreFast() {
+    for (int i = 0; i < 30; i++) {
+      limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL);
+      limiter.release(FAST, false);
+    }
+
+    assertEquals(12, limiter.limit());
+    assertEquals(0, limiter.inFlight());
+  }
+
+  @Test
+  void release_cutsTheLimitOncePerTargetWhenSlow() {
+    limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL);
+    limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL);
+    limiter.release(SLOW, false);
+    limiter.release(SLOW, false);
+    assertEquals(5, limiter.limit());
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL);
+    limiter.release(FAST, true);
+    assertEquals(2, limiter.limit());
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL);
+    limiter.release(SLOW, false);
+    assertEquals(2, limiter.limit(), "never below the minimum");
+  }
+
+  @Test
+  void priority_isTakenFromThePath() {
+    assertEquals(ConcurrencyLimiter.Priority.CRITICAL, ConcurrencyLimiter.Priority.of("/nextPlaylistInQueue"));
+    assertEquals(ConcurrencyLimiter.Priority.LOW, ConcurrencyLimiter.Priority.of("/fppHeartbeat"));
+    assertEquals(ConcurrencyLimiter.Priority.NORMAL, ConcurrencyLimiter.Priority.of("/syncPlaylists"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void filter_releasesThePermitWhenTheConnectionDrops() {
+    RoutingContext routingContext = mock(RoutingContext.class);
+    CurrentVertxRequest currentVertxRequest = mock(CurrentVertxRequest.class);
+    when(currentVertxRequest.getCurrent()).thenReturn(routingContext);
+    UriInfo uriInfo = mock(UriInfo.class);
+    when(uriInfo.getPath()).thenReturn("/nextPlaylistInQueue");
+    ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+    when(requestContext.getUriInfo()).thenReturn(uriInfo);
+    ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter();
+    filter.concurrencyLimiter = limiter;
+    filter.currentVertxRequest = currentVertxRequest;
+
+    filter.filter(requestContext);
+    assertEquals(1, limiter.inFlight());
+
+    ArgumentCaptor<Handler<AsyncResult<Void>>> endHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(routingContext).addEndHandler(endHandler.capture());
+    endHandler.getValue().handle(Future.failedFuture("Connection was closed"));
+    assertEquals(0, limiter.inFlight());
+  }
+}
@@ -0,0 +1,99 @@
+package com.remotefalcon.plugins.api.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowRateLimiterTest {
+
+  private static final String TOKEN = "rate-limit-token";
+
+  private ShowRateLimiter rateLimiter;
+  private SimpleMeterRegistry meterRegistry;
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimiter = new ShowRateLimiter();
+    rateLimiter.meterRegistry = meterRegistry;
+    rateLimiter.enabled = true;
+    rateLimiter.maxShows = 2;
+    rateLimiter.pollPerSecond = 2;
+    rateLimiter.pollBurst = 3;
+    rateLimiter.updatePerSecond = 10;
+    rateLimiter.updateBurst = 10;
+    rateLimiter.syncPerSecond = 1;
+    rateLimiter.syncBurst = 1;
+    rateLimiter.clock = now::get;
+    rateLimiter.init();
+  }
+
+  @Test
+  void acquire_allowsBurstThenThrottlesWithRetryAfter() {
+    for (int i = 0; i < 3; i++) {
+      assertTrue(rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.POLL).isEmpty());
+    }
+
+    OptionalLong retryAfter = rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.POLL);
+
+    assertTrue(retryAfter.isPresent());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), retryAfter.getAsLong());
+    assertEquals(1.0, meterRegistry.get("show.ratelimit.throttled").tag("endpoint", "poll").counter().count());
+  }
+
+  @Test
+  void acquire_refillsAtTheConfiguredRate() {
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.POLL);
+    }
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+    assertTrue(rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.POLL).isEmpty());
+    assertTrue(rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.POLL).isPresent());
+  }
+
+  @Test
+  void acquire_keepsEndpointClassesSeparate() {
+    assertTrue(rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.SYNC).isEmpty());
+    assertTrue(rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.SYNC).isPresent());
+
+    assertTrue(rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.POLL).isEmpty());
+  }
+
+  @Test
+  void acquire_dropsRefilledShowsWhenFull() {
+    rateLimiter.acquire("show-one-token", ShowRateLimiter.EndpointClass.SYNC);
+    rateLimiter.acquire("show-two-token", ShowRateLimiter.EndpointClass.SYNC);
+
+    // Both buckets are still draining, so a third show is not tracked and not limited
+    assertTrue(rateLimiter.acquire("show-three-token", ShowRateLimiter.EndpointClass.SYNC).isEmpty());
+    assertTrue(rateLimiter.acquire("show-three-token", ShowRateLimiter.EndpointClass.SYNC).isEmpty());
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertTrue(rateLimiter.acquire("show-three-token", ShowRateLimiter.EndpointClass.SYNC).isEmpty());
+    assertTrue(rateLimiter.acquire("show-three-token", ShowRateLimiter.EndpointClass.SYNC).isPresent());
+  }
+
+  @Test
+  void topOffenders_masksTokens() {
+    rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.SYNC);
+    rateLimiter.acquire(TOKEN, ShowRateLimiter.EndpointClass.SYNC);
+
+    assertEquals("rate****en", rateLimiter.topOffenders(5).getFirst().getShowToken());
+    assertEquals(1, rateLimiter.topOffenders(5).getFirst().getThrottled());
+  }
+
+  @Test
+  void endpointClass_isTakenFromThePath() {
+    assertEquals(ShowRateLimiter.EndpointClass.POLL, ShowRateLimiter.EndpointClass.of("/nextPlaylistInQueue"));
+    assertEquals(ShowRateLimiter.EndpointClass.SYNC, ShowRateLimiter.EndpointClass.of("/syncPlaylists"));
+    assertEquals(ShowRateLimiter.EndpointClass.UPDATE, ShowRateLimiter.EndpointClass.of("/updateWhatsPlaying"));
+  }
+}
@@ -74,6 +74,7 @@ class PluginControllerIntegrationTest {
     Sequence seq1 = show.getSequences().get(0);
     Sequence seq2 = show.getSequences().get(1);
 
+    // Seeded out of order, as an older writer may have left it
     show.getRequests().add(Request.builder().position(2).sequence(seq1).build());
     show.getRequests().add(Request.builder().position(1).sequence(seq2).build());
     showRepository.update(show);
@@ -0,0 +1,160 @@
+package com.remotefalcon.plugins.api.integration;
+
+import com.remotefalcon.library.enums.ViewerControlMode;
+import com.remotefalcon.library.models.*;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.repository.RequestQueueRepository;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.RestAssured;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jukebox queue stored in the requestQueue collection (request.queue.collection.enabled).
+ */
+@QuarkusTest
+@QuarkusTestResource(MongoTestResource.class)
+@TestProfile(RequestQueueIntegrationTest.CollectionQueueProfile.class)
+class RequestQueueIntegrationTest {
+
+  public static class CollectionQueueProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("request.queue.collection.enabled", "true");
+    }
+  }
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  RequestQueueRepository requestQueueRepository;
+
+  private static final String TEST_SHOW_TOKEN = "queue-integration-test-token";
+  private static final String BASE_PATH = "/remote-falcon-plugins-api";
+
+  @BeforeAll
+  static void setupRestAssured() {
+    RestAssured.basePath = BASE_PATH;
+  }
+
+  @BeforeEach
+  void setUp() {
+    tearDown();
+    showRepository.persist(createTestShow());
+  }
+
+  @AfterEach
+  void tearDown() {
+    showRepository.findByShowToken(TEST_SHOW_TOKEN)
+        .ifPresent(show -> showRepository.delete(show));
+    requestQueueRepository.purge(TEST_SHOW_TOKEN);
+  }
+
+  @Test
+  @DisplayName("nextPlaylistInQueue dequeues from the collection in position order")
+  void nextPlaylistInQueue_dequeuesInPositionOrder() {
+    Show show = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    requestQueueRepository.enqueue(TEST_SHOW_TOKEN, Request.builder().sequence(show.getSequences().get(1)).build());
+    requestQueueRepository.enqueue(TEST_SHOW_TOKEN, Request.builder().sequence(show.getSequences().get(0)).build());
+
+    nextPlaylist().body("nextPlaylist", equalTo("Queue Song 1"));
+    nextPlaylist().body("nextPlaylist", equalTo("Queue Song 0"));
+    nextPlaylist().body("playlistIndex", equalTo(-1));
+    assertTrue(requestQueueRepository.isEmpty(TEST_SHOW_TOKEN));
+  }
+
+  @Test
+  @DisplayName("Embedded requests are moved behind queued ones and the embedded array is cleared")
+  void nextPlaylistInQueue_drainsEmbeddedRequests() {
+    Show show = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    requestQueueRepository.enqueue(TEST_SHOW_TOKEN, Request.builder().sequence(show.getSequences().get(2)).build());
+    show.getRequests().add(Request.builder().position(2).sequence(show.getSequences().get(1)).build());
+    show.getRequests().add(Request.builder().position(1).sequence(show.getSequences().get(0)).build());
+    showRepository.update(show);
+
+    nextPlaylist().body("nextPlaylist", equalTo("Queue Song 2"));
+    assertTrue(showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow().getRequests().isEmpty());
+    nextPlaylist().body("nextPlaylist", equalTo("Queue Song 0"));
+    nextPlaylist().body("nextPlaylist", equalTo("Queue Song 1"));
+  }
+
+  @Test
+  @DisplayName("updatePlaylistQueue and purgeQueue use the collection")
+  void updatePlaylistQueue_and_purgeQueue_useCollection() {
+    Show show = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    requestQueueRepository.enqueue(TEST_SHOW_TOKEN, Request.builder().sequence(show.getSequences().get(0)).build());
+
+    given().header("showtoken", TEST_SHOW_TOKEN).when().post("/updatePlaylistQueue")
+        .then().statusCode(200).body("message", equalTo("Success"));
+    given().header("showtoken", TEST_SHOW_TOKEN).when().delete("/purgeQueue")
+        .then().statusCode(200);
+    given().header("showtoken", TEST_SHOW_TOKEN).when().post("/updatePlaylistQueue")
+        .then().statusCode(200).body("message", equalTo("Queue Empty"));
+  }
+
+  private ValidatableResponse nextPlaylist() {
+    return given()
+        .header("showtoken", TEST_SHOW_TOKEN)
+        .when()
+        .get("/nextPlaylistInQueue")
+        .then()
+        .statusCode(200);
+  }
+
+  private Show createTestShow() {
+    Show show = new Show();
+    show.setShowToken(TEST_SHOW_TOKEN);
+    show.setShowSubdomain("queue-test-show");
+    show.setShowName("Queue Integration Test Show");
+    show.setPlayingNow("");
+    show.setPlayingNext("");
+    show.setPlayingNextFromSchedule("");
+    show.setPreferences(Preference.builder()
+        .viewerControlMode(ViewerControlMode.JUKEBOX)
+        .viewerControlEnabled(true)
+        .hideSequenceCount(0)
+        .managePsa(false)
+        .psaEnabled(false)
+        .psaFrequency(3)
+        .resetVotes(true)
+        .sequencesPlayed(0)
+        .build());
+
+    List<Sequence> sequences = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      sequences.add(Sequence.builder()
+          .name("Queue Song " + i)
+          .displayName("Queue Song " + i)
+          .order(i + 1)
+          .index(i + 1)
+          .active(true)
+          .visible(true)
+          .visibilityCount(0)
+          .type("SEQUENCE")
+          .build());
+    }
+    show.setSequences(sequences);
+    show.setSequenceGroups(new ArrayList<>());
+    show.setRequests(new ArrayList<>());
+    show.setVotes(new ArrayList<>());
+    show.setActiveViewers(new ArrayList<>());
+    show.setPsaSequences(new ArrayList<>());
+    show.setPages(new ArrayList<>());
+    show.setStats(Stat.builder().votingWin(new ArrayList<>()).build());
+    return show;
+  }
+}
@@ -0,0 +1,172 @@
+package com.remotefalcon.plugins.api.integration;
+
+import com.remotefalcon.library.enums.ViewerControlMode;
+import com.remotefalcon.library.models.*;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests for the per-show lock: concurrent read-modify-write calls for the same show on one pod must not
+ * pop the same queue entry or count the same winning vote twice.
+ */
+@QuarkusTest
+@QuarkusTestResource(MongoTestResource.class)
+class ShowLockIntegrationTest {
+
+  @Inject
+  ShowRepository showRepository;
+
+  private static final String TEST_SHOW_TOKEN = "lock-integration-test-token";
+  private static final String BASE_PATH = "/remote-falcon-plugins-api";
+  private static final int ENTRIES = 40;
+  private static final int THREADS = 8;
+
+  @BeforeAll
+  static void setupRestAssured() {
+    RestAssured.basePath = BASE_PATH;
+  }
+
+  @BeforeEach
+  void setUp() {
+    showRepository.findByShowToken(TEST_SHOW_TOKEN)
+        .ifPresent(show -> showRepository.delete(show));
+    showRepository.persist(createTestShow());
+  }
+
+  @AfterEach
+  void tearDown() {
+    showRepository.findByShowToken(TEST_SHOW_TOKEN)
+        .ifPresent(show -> showRepository.delete(show));
+  }
+
+  @Test
+  @DisplayName("Concurrent nextPlaylistInQueue pops every request exactly once")
+  void concurrentNextPlaylistInQueue_noLostOrDuplicatePops() throws Exception {
+    Show show = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    for (int i = 0; i < ENTRIES; i++) {
+      show.getRequests().add(Request.builder().position(i + 1).sequence(show.getSequences().get(i)).build());
+    }
+    showRepository.update(show);
+
+    List<String> popped = runConcurrently(() -> given()
+        .header("showtoken", TEST_SHOW_TOKEN)
+        .when()
+        .get("/nextPlaylistInQueue")
+        .then()
+        .statusCode(200)
+        .extract().path("nextPlaylist"));
+
+    assertFalse(popped.contains(null));
+    assertEquals(ENTRIES, new HashSet<>(popped).size());
+    assertTrue(showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow().getRequests().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Concurrent highestVotedPlaylist counts every winning vote exactly once")
+  void concurrentHighestVotedPlaylist_noLostOrDuplicateWins() throws Exception {
+    Show show = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    show.getPreferences().setViewerControlMode(ViewerControlMode.VOTING);
+    show.getPreferences().setResetVotes(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      show.getVotes().add(Vote.builder()
+          .sequence(show.getSequences().get(i))
+          .votes(ENTRIES - i)
+          .lastVoteTime(LocalDateTime.now())
+          .ownerVoted(false)
+          .viewersVoted(new ArrayList<>())
+          .build());
+    }
+    showRepository.update(show);
+
+    List<String> winners = runConcurrently(() -> given()
+        .header("showtoken", TEST_SHOW_TOKEN)
+        .when()
+        .get("/highestVotedPlaylist")
+        .then()
+        .statusCode(200)
+        .extract().path("winningPlaylist"));
+
+    assertFalse(winners.contains(null));
+    assertEquals(ENTRIES, new HashSet<>(winners).size());
+    Show updatedShow = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    assertTrue(updatedShow.getVotes().isEmpty());
+    assertEquals(ENTRIES, updatedShow.getStats().getVotingWin().size());
+  }
+
+  private List<String> runConcurrently(Callable<String> call) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < ENTRIES; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return call.call();
+        }));
+      }
+      start.countDown();
+      List<String> results = new ArrayList<>();
+      for (Future<String> future : futures) {
+        results.add(future.get(60, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Show createTestShow() {
+    Show show = new Show();
+    show.setShowToken(TEST_SHOW_TOKEN);
+    show.setShowSubdomain("lock-test-show");
+    show.setShowName("Lock Integration Test Show");
+    show.setPlayingNow("");
+    show.setPlayingNext("");
+    show.setPlayingNextFromSchedule("");
+    show.setPreferences(Preference.builder()
+        .viewerControlMode(ViewerControlMode.JUKEBOX)
+        .viewerControlEnabled(true)
+        .hideSequenceCount(0)
+        .managePsa(false)
+        .psaEnabled(false)
+        .psaFrequency(3)
+        .resetVotes(true)
+        .sequencesPlayed(0)
+        .build());
+
+    List<Sequence> sequences = new ArrayList<>();
+    for (int i = 0; i < ENTRIES; i++) {
+      sequences.add(Sequence.builder()
+          .name("Lock Song " + i)
+          .displayName("Lock Song " + i)
+          .order(i + 1)
+          .index(i + 1)
+          .active(true)
+          .visible(true)
+          .visibilityCount(0)
+          .type("SEQUENCE")
+          .build());
+    }
+    show.setSequences(sequences);
+    show.setSequenceGroups(new ArrayList<>());
+    show.setRequests(new ArrayList<>());
+    show.setVotes(new ArrayList<>());
+    show.setActiveViewers(new ArrayList<>());
+    show.setPsaSequences(new ArrayList<>());
+    show.setPages(new ArrayList<>());
+    show.setStats(Stat.builder().votingWin(new ArrayList<>()).build());
+    return show;
+  }
+}
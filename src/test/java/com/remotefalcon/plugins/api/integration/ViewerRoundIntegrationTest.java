@@ -0,0 +1,157 @@
+package com.remotefalcon.plugins.api.integration;
+
+import com.remotefalcon.library.enums.ViewerControlMode;
+import com.remotefalcon.library.models.*;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.model.UpdateWhatsPlayingRequest;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import com.remotefalcon.plugins.api.repository.ViewerRoundRepository;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-round viewer dedup (viewer.dedup.rounds.enabled).
+ */
+@QuarkusTest
+@QuarkusTestResource(MongoTestResource.class)
+@TestProfile(ViewerRoundIntegrationTest.ViewerRoundsProfile.class)
+class ViewerRoundIntegrationTest {
+
+  public static class ViewerRoundsProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("viewer.dedup.rounds.enabled", "true");
+    }
+  }
+
+  @Inject
+  ShowRepository showRepository;
+
+  @Inject
+  ViewerRoundRepository viewerRoundRepository;
+
+  private static final String TEST_SHOW_TOKEN = "rounds-integration-test-token";
+  private static final String BASE_PATH = "/remote-falcon-plugins-api";
+
+  @BeforeAll
+  static void setupRestAssured() {
+    RestAssured.basePath = BASE_PATH;
+  }
+
+  @BeforeEach
+  void setUp() {
+    tearDown();
+    showRepository.persist(createTestShow());
+  }
+
+  @AfterEach
+  void tearDown() {
+    showRepository.findByShowToken(TEST_SHOW_TOKEN)
+        .ifPresent(show -> showRepository.delete(show));
+  }
+
+  @Test
+  @DisplayName("A viewer is deduped within a round and may vote again after a song change")
+  void record_dedupesWithinRound_andResetsOnSongChange() {
+    long round = viewerRoundRepository.advanceRound(TEST_SHOW_TOKEN);
+    assertTrue(viewerRoundRepository.record(TEST_SHOW_TOKEN, round, ViewerRoundRepository.VOTE, "viewer-1"));
+    assertFalse(viewerRoundRepository.record(TEST_SHOW_TOKEN, round, ViewerRoundRepository.VOTE, "viewer-1"));
+    assertTrue(viewerRoundRepository.record(TEST_SHOW_TOKEN, round, ViewerRoundRepository.REQUEST, "viewer-1"));
+
+    updateWhatsPlaying("Round Song 0");
+
+    long nextRound = viewerRoundRepository.currentRound(TEST_SHOW_TOKEN).orElseThrow();
+    assertTrue(nextRound > round);
+    assertTrue(viewerRoundRepository.record(TEST_SHOW_TOKEN, nextRound, ViewerRoundRepository.VOTE, "viewer-1"));
+  }
+
+  @Test
+  @DisplayName("A song change still clears the viewer flags the viewer site dedupes on")
+  void updateWhatsPlaying_stillClearsEmbeddedViewerFlags() {
+    Show show = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    show.getVotes().add(Vote.builder()
+        .sequence(show.getSequences().get(1))
+        .votes(3)
+        .viewersVoted(new ArrayList<>(List.of("legacy-viewer")))
+        .lastVoteTime(LocalDateTime.now())
+        .ownerVoted(false)
+        .build());
+    show.getRequests().add(Request.builder().position(1).sequence(show.getSequences().get(2)).viewerRequested("legacy-viewer").build());
+    showRepository.update(show);
+
+    updateWhatsPlaying("Round Song 0");
+
+    Show updatedShow = showRepository.findByShowToken(TEST_SHOW_TOKEN).orElseThrow();
+    assertEquals("Round Song 0", updatedShow.getPlayingNow());
+    assertTrue(updatedShow.getVotes().getFirst().getViewersVoted().isEmpty());
+    assertNull(updatedShow.getRequests().getFirst().getViewerRequested());
+  }
+
+  private void updateWhatsPlaying(String playlist) {
+    given()
+        .header("showtoken", TEST_SHOW_TOKEN)
+        .contentType(ContentType.JSON)
+        .body(UpdateWhatsPlayingRequest.builder().playlist(playlist).build())
+        .when()
+        .post("/updateWhatsPlaying")
+        .then()
+        .statusCode(200);
+  }
+
+  private Show createTestShow() {
+    Show show = new Show();
+    show.setShowToken(TEST_SHOW_TOKEN);
+    show.setShowSubdomain("rounds-test-show");
+    show.setShowName("Viewer Rounds Integration Test Show");
+    show.setPlayingNow("");
+    show.setPlayingNext("");
+    show.setPlayingNextFromSchedule("");
+    show.setPreferences(Preference.builder()
+        .viewerControlMode(ViewerControlMode.JUKEBOX)
+        .viewerControlEnabled(true)
+        .hideSequenceCount(0)
+        .managePsa(false)
+        .psaEnabled(false)
+        .psaFrequency(3)
+        .resetVotes(true)
+        .sequencesPlayed(0)
+        .build());
+
+    List<Sequence> sequences = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      sequences.add(Sequence.builder()
+          .name("Round Song " + i)
+          .displayName("Round Song " + i)
+          .order(i + 1)
+          .index(i + 1)
+          .active(true)
+          .visible(true)
+          .visibilityCount(0)
+          .type("SEQUENCE")
+          .build());
+    }
+    show.setSequences(sequences);
+    show.setSequenceGroups(new ArrayList<>());
+    show.setRequests(new ArrayList<>());
+    show.setVotes(new ArrayList<>());
+    show.setActiveViewers(new ArrayList<>());
+    show.setPsaSequences(new ArrayList<>());
+    show.setPages(new ArrayList<>());
+    show.setStats(Stat.builder().votingWin(new ArrayList<>()).build());
+    return show;
+  }
+}
@@ -0,0 +1,62 @@
+package com.remotefalcon.plugins.api.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowDocumentMetricsTest {
+
+  private ShowDocumentMetrics metrics;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    metrics = new ShowDocumentMetrics();
+    metrics.meterRegistry = meterRegistry;
+    metrics.warnBytes = 1_000;
+    metrics.warnArrayLength = 5_000;
+    metrics.warnInterval = Duration.ofMinutes(10);
+    metrics.topN = 20;
+    metrics.measureInterval = Duration.ofMinutes(10);
+    metrics.init();
+  }
+
+  @Test
+  void record_measuresTheFullDocumentOncePerInterval() {
+    RawBsonDocument projection = RawBsonDocument.parse("{\"showSubdomain\": \"mysub\", \"sequences\": []}");
+    AtomicInteger measurements = new AtomicInteger();
+
+    metrics.record("token", projection, () -> {
+      measurements.incrementAndGet();
+      return 2_000;
+    });
+    metrics.record("token", projection, () -> {
+      measurements.incrementAndGet();
+      return 3_000;
+    });
+
+    assertEquals(1, measurements.get());
+    assertEquals(2_000, metrics.largestShows(1).getFirst().getBytes());
+    assertEquals(projection.getByteBuffer().remaining(), metrics.largestShows(1).getFirst().getProjectedBytes());
+    // The projection is far below warn-bytes, but the full document is not
+    assertEquals(2.0, meterRegistry.get("show.document.oversized").counter().count());
+  }
+
+  @Test
+  void record_survivesAFailedMeasurement() {
+    RawBsonDocument projection = RawBsonDocument.parse("{\"showSubdomain\": \"mysub\"}");
+
+    metrics.record("token", projection, () -> {
+      throw new IllegalStateException("unreachable");
+    });
+
+    assertEquals(0, metrics.largestShows(1).getFirst().getBytes());
+  }
+}
@@ -0,0 +1,55 @@
+package com.remotefalcon.plugins.api.metrics;
+
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowDocumentStatsTest {
+
+  @Test
+  void of_countsTrackedArrays() {
+    RawBsonDocument document = RawBsonDocument.parse("""
+        {
+          "showToken": "token",
+          "showSubdomain": "mysub",
+          "sequences": [{"name": "A"}, {"name": "B"}, {"name": "C"}],
+          "votes": [
+            {"votes": 2, "viewersVoted": ["ip1", "ip2"]},
+            {"votes": 1, "viewersVoted": ["ip3"]},
+            {"votes": 1}
+          ],
+          "requests": [{"position": 1}],
+          "psaSequences": [],
+          "stats": {"votingWin": [{"name": "A"}, {"name": "B"}]}
+        }
+        """);
+
+    ShowDocumentStats stats = ShowDocumentStats.of(document);
+
+    assertEquals("mysub", stats.showSubdomain());
+    assertEquals(document.getByteBuffer().remaining(), stats.projectedBytes());
+    assertEquals(3, stats.sequences());
+    assertEquals(3, stats.votes());
+    assertEquals(3, stats.viewersVoted());
+    assertEquals(1, stats.requests());
+    assertEquals(0, stats.psaSequences());
+    assertEquals(2, stats.votingWins());
+    assertEquals(3, stats.largestArray());
+  }
+
+  @Test
+  void of_missingOrNullArrays_countAsEmpty() {
+    RawBsonDocument document = RawBsonDocument.parse("""
+        {"showToken": "token", "sequences": null, "stats": null, "votes": [null]}
+        """);
+
+    ShowDocumentStats stats = ShowDocumentStats.of(document);
+
+    assertNull(stats.showSubdomain());
+    assertEquals(0, stats.sequences());
+    assertEquals(1, stats.votes());
+    assertEquals(0, stats.viewersVoted());
+    assertEquals(0, stats.votingWins());
+  }
+}
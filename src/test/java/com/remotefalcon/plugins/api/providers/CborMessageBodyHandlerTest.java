@@ -0,0 +1,71 @@
+package com.remotefalcon.plugins.api.providers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import com.remotefalcon.plugins.api.model.SyncPlaylistRequest;
+import com.remotefalcon.plugins.api.model.ViewerControlRequest;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborMessageBodyHandlerTest {
+
+  private CborMessageBodyHandler handler;
+
+  @BeforeEach
+  void setup() {
+    handler = new CborMessageBodyHandler();
+    handler.objectMapper = new ObjectMapper();
+    handler.init();
+  }
+
+  @Test
+  void writeTo_writesCbor() throws IOException {
+    PluginResponse response = PluginResponse.builder().message("Success").viewerControlMode("jukebox").build();
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    handler.writeTo(response, PluginResponse.class, PluginResponse.class, new Annotation[0],
+        CborMessageBodyHandler.APPLICATION_CBOR_TYPE, null, body);
+
+    assertEquals(response, new CBORMapper().readValue(body.toByteArray(), PluginResponse.class));
+    assertTrue(body.size() < new ObjectMapper().writeValueAsBytes(response).length);
+  }
+
+  @Test
+  void readFrom_readsCbor() throws IOException {
+    byte[] body = new CBORMapper().writeValueAsBytes(Map.of("viewerControlEnabled", "Y"));
+
+    Object request = handler.readFrom(Object.class, ViewerControlRequest.class, new Annotation[0],
+        CborMessageBodyHandler.APPLICATION_CBOR_TYPE, null, new ByteArrayInputStream(body));
+
+    assertEquals("Y", ((ViewerControlRequest) request).getViewerControlEnabled());
+  }
+
+  @Test
+  void readFrom_rejectsMalformedBodiesWithBadRequest() {
+    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> handler.readFrom(Object.class,
+        ViewerControlRequest.class, new Annotation[0], CborMessageBodyHandler.APPLICATION_CBOR_TYPE, null,
+        new ByteArrayInputStream(new byte[]{(byte) 0xbf, 0x61})));
+    assertEquals(400, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void handlesOnlyCborAndLeavesSyncAndPreSerializedBodiesAlone() {
+    MediaType cbor = CborMessageBodyHandler.APPLICATION_CBOR_TYPE;
+    assertTrue(handler.isWriteable(PluginResponse.class, PluginResponse.class, new Annotation[0], cbor));
+    assertFalse(handler.isWriteable(PluginResponse.class, PluginResponse.class, new Annotation[0], MediaType.APPLICATION_JSON_TYPE));
+    assertFalse(handler.isWriteable(PluginResponse.class, PluginResponse.class, new Annotation[0], MediaType.WILDCARD_TYPE));
+    assertFalse(handler.isWriteable(byte[].class, byte[].class, new Annotation[0], cbor));
+    assertFalse(handler.isReadable(SyncPlaylistRequest.class, SyncPlaylistRequest.class, new Annotation[0], cbor));
+  }
+}
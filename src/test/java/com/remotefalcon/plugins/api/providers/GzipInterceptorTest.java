@@ -0,0 +1,143 @@
+package com.remotefalcon.plugins.api.providers;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GzipInterceptorTest {
+
+  private GzipInterceptor interceptor;
+
+  @BeforeEach
+  void setup() {
+    interceptor = new GzipInterceptor();
+    interceptor.enabled = true;
+    interceptor.maxInflatedBytes = 1024;
+    interceptor.responseThreshold = 64;
+  }
+
+  @Test
+  void aroundReadFrom_inflatesGzipBodies() throws IOException {
+    String body = "{\"playlists\": [{\"playlistName\": \"Song A\"}]}";
+    MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+    headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+    Object read = interceptor.aroundReadFrom(readerContext(headers, gzip(body.getBytes(StandardCharsets.UTF_8))));
+
+    assertEquals(body, read);
+    assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  void aroundReadFrom_stopsACompressionBombAtTheInflatedLimit() throws IOException {
+    // 1 MiB of zeros gzips to about 1 KiB
+    byte[] bomb = gzip(new byte[1 << 20]);
+    MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+    headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> interceptor.aroundReadFrom(readerContext(headers, bomb)));
+    assertEquals(413, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void aroundReadFrom_rejectsUnsupportedAndInvalidEncodings() {
+    MultivaluedMap<String, String> zstd = new MultivaluedHashMap<>();
+    zstd.putSingle(HttpHeaders.CONTENT_ENCODING, "zstd");
+    assertEquals(415, assertThrows(WebApplicationException.class,
+        () -> interceptor.aroundReadFrom(readerContext(zstd, new byte[]{1, 2, 3}))).getResponse().getStatus());
+
+    MultivaluedMap<String, String> gzip = new MultivaluedHashMap<>();
+    gzip.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+    assertEquals(400, assertThrows(WebApplicationException.class,
+        () -> interceptor.aroundReadFrom(readerContext(gzip, "not gzip".getBytes(StandardCharsets.UTF_8)))).getResponse().getStatus());
+  }
+
+  @Test
+  void aroundWriteTo_gzipsOnlyAboveTheThreshold() throws IOException {
+    byte[] large = "x".repeat(200).getBytes(StandardCharsets.UTF_8);
+    MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    interceptor.aroundWriteTo(writerContext(headers, out, "br, gzip;q=0.8", large));
+
+    assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertTrue(out.size() < large.length);
+    assertArrayEquals(large, new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes());
+
+    byte[] small = "{\"message\":\"Success\"}".getBytes(StandardCharsets.UTF_8);
+    MultivaluedMap<String, Object> smallHeaders = new MultivaluedHashMap<>();
+    ByteArrayOutputStream smallOut = new ByteArrayOutputStream();
+    interceptor.aroundWriteTo(writerContext(smallHeaders, smallOut, "gzip", small));
+
+    assertNull(smallHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertArrayEquals(small, smallOut.toByteArray());
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, smallHeaders.getFirst(HttpHeaders.VARY));
+  }
+
+  @Test
+  void acceptsGzip_honorsQualityZero() {
+    assertTrue(GzipInterceptor.acceptsGzip("gzip, deflate"));
+    assertTrue(GzipInterceptor.acceptsGzip("*"));
+    assertFalse(GzipInterceptor.acceptsGzip("gzip;q=0, br"));
+    assertFalse(GzipInterceptor.acceptsGzip("identity"));
+  }
+
+  private static ReaderInterceptorContext readerContext(MultivaluedMap<String, String> headers, byte[] body) throws IOException {
+    AtomicReference<InputStream> stream = new AtomicReference<>(new ByteArrayInputStream(body));
+    ReaderInterceptorContext context = mock(ReaderInterceptorContext.class);
+    when(context.getHeaders()).thenReturn(headers);
+    when(context.getInputStream()).thenAnswer(invocation -> stream.get());
+    doAnswer(invocation -> {
+      stream.set(invocation.getArgument(0));
+      return null;
+    }).when(context).setInputStream(any());
+    when(context.proceed()).thenAnswer(invocation -> new String(stream.get().readAllBytes(), StandardCharsets.UTF_8));
+    return context;
+  }
+
+  private static WriterInterceptorContext writerContext(MultivaluedMap<String, Object> headers, OutputStream out,
+                                                        String acceptEncoding, byte[] body) throws IOException {
+    AtomicReference<OutputStream> stream = new AtomicReference<>(out);
+    WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+    when(context.getHeaders()).thenReturn(headers);
+    when(context.getProperty(GzipInterceptor.ACCEPT_ENCODING)).thenReturn(acceptEncoding);
+    when(context.getOutputStream()).thenAnswer(invocation -> stream.get());
+    doAnswer(invocation -> {
+      stream.set(invocation.getArgument(0));
+      return null;
+    }).when(context).setOutputStream(any());
+    doAnswer(invocation -> {
+      stream.get().write(body);
+      return null;
+    }).when(context).proceed();
+    return context;
+  }
+
+  private static byte[] gzip(byte[] body) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body);
+    }
+    return out.toByteArray();
+  }
+}
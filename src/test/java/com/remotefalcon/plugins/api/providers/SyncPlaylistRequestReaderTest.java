@@ -0,0 +1,115 @@
+package com.remotefalcon.plugins.api.providers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import com.remotefalcon.plugins.api.model.SyncPlaylistDetails;
+import com.remotefalcon.plugins.api.model.SyncPlaylistRequest;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncPlaylistRequestReaderTest {
+
+  private SyncPlaylistRequestReader reader;
+
+  @BeforeEach
+  void setup() {
+    reader = new SyncPlaylistRequestReader();
+    reader.objectMapper = new ObjectMapper();
+    reader.sequenceLimit = 3;
+    reader.maxBytes = 1024;
+  }
+
+  @Test
+  void readFrom_parsesPlaylistsAndDedupesNames() throws IOException {
+    SyncPlaylistRequest request = read("""
+        {"playlists": [
+          {"playlistName": "Song A", "playlistDuration": 120, "playlistIndex": "2", "playlistType": "SEQUENCE",
+           "mediaTitle": "Title", "mediaArtist": "Artist", "mediaAlbumUrl": "https://example.com/a.png",
+           "unknown": {"nested": [1, 2]}},
+          {"playlistName": "song a", "playlistIndex": 9},
+          {"playlistName": "", "playlistIndex": 10},
+          {"playlistName": "Song B", "playlistDuration": null}
+        ], "extra": true}
+        """);
+
+    assertEquals(2, request.getPlaylists().size());
+    SyncPlaylistDetails first = request.getPlaylists().getFirst();
+    assertEquals("Song A", first.getPlaylistName());
+    assertEquals(120, first.getPlaylistDuration());
+    assertEquals(2, first.getPlaylistIndex());
+    assertEquals("SEQUENCE", first.getPlaylistType());
+    assertEquals("Title", first.getMediaTitle());
+    assertEquals("Artist", first.getMediaArtist());
+    assertEquals("https://example.com/a.png", first.getMediaAlbumUrl());
+    assertEquals("Song B", request.getPlaylists().get(1).getPlaylistName());
+    assertNull(request.getPlaylists().get(1).getPlaylistDuration());
+  }
+
+  @Test
+  void readFrom_missingPlaylists_returnsNullPlaylists() throws IOException {
+    assertNull(read("{}").getPlaylists());
+  }
+
+  @Test
+  void readFrom_overSequenceLimit_rejectsWithBadRequest() {
+    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> read("""
+        {"playlists": [{"playlistName": "A"}, {"playlistName": "B"}, {"playlistName": "C"}, {"playlistName": "D"}]}
+        """));
+    assertEquals(400, ex.getResponse().getStatus());
+    assertEquals("Cannot sync more than 3 sequences", ((PluginResponse) ex.getResponse().getEntity()).getMessage());
+  }
+
+  @Test
+  void readFrom_duplicatesDoNotCountTowardsLimit() throws IOException {
+    SyncPlaylistRequest request = read("""
+        {"playlists": [{"playlistName": "A"}, {"playlistName": "a"}, {"playlistName": "B"}, {"playlistName": "C"}]}
+        """);
+    assertEquals(3, request.getPlaylists().size());
+  }
+
+  @Test
+  void readFrom_overMaxBytes_rejectsWithBadRequest() {
+    reader.maxBytes = 64;
+    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> read("""
+        {"playlists": [{"playlistName": "A", "mediaTitle": "A very long media title that pushes past the limit"}]}
+        """));
+    assertEquals(400, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void readFrom_malformedBody_rejectsWithBadRequest() {
+    assertEquals(400, assertThrows(WebApplicationException.class, () -> read("{\"playlists\": [")).getResponse().getStatus());
+    assertEquals(400, assertThrows(WebApplicationException.class, () -> read("{\"playlists\": 5}")).getResponse().getStatus());
+    assertEquals(400, assertThrows(WebApplicationException.class, () -> read("[]")).getResponse().getStatus());
+  }
+
+  @Test
+  void readFrom_parsesCbor() throws IOException {
+    byte[] body = new CBORMapper().writeValueAsBytes(Map.of("playlists", List.of(
+        Map.of("playlistName", "Song A", "playlistDuration", 120, "playlistIndex", 2),
+        Map.of("playlistName", "song a", "playlistIndex", 3))));
+
+    SyncPlaylistRequest request = reader.readFrom(SyncPlaylistRequest.class, SyncPlaylistRequest.class,
+        new java.lang.annotation.Annotation[0], CborMessageBodyHandler.APPLICATION_CBOR_TYPE, null, new ByteArrayInputStream(body));
+
+    assertEquals(1, request.getPlaylists().size());
+    assertEquals("Song A", request.getPlaylists().getFirst().getPlaylistName());
+    assertEquals(120, request.getPlaylists().getFirst().getPlaylistDuration());
+  }
+
+  private SyncPlaylistRequest read(String body) throws IOException {
+    return reader.readFrom(SyncPlaylistRequest.class, SyncPlaylistRequest.class, new java.lang.annotation.Annotation[0],
+        MediaType.APPLICATION_JSON_TYPE, null, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,83 @@
+package com.remotefalcon.plugins.api.repository;
+
+import com.remotefalcon.library.enums.ViewerControlMode;
+import com.remotefalcon.library.models.*;
+import com.remotefalcon.library.quarkus.entity.Show;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.codecs.pojo.PojoCodecProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.MongoClientSettings.getDefaultCodecRegistry;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyShowTest {
+
+  private static final CodecRegistry CODEC_REGISTRY = CodecRegistries.fromRegistries(
+      getDefaultCodecRegistry(),
+      CodecRegistries.fromProviders(PojoCodecProvider.builder().automatic(true).build()));
+
+  @Test
+  void of_decodesSameShowAsEagerCodec() {
+    Show show = buildShow();
+    RawBsonDocument document = new RawBsonDocument(show, CODEC_REGISTRY.get(Show.class));
+
+    Show view = LazyShow.of(document, CODEC_REGISTRY);
+
+    assertEquals("token", view.getShowToken());
+    assertEquals("mysub", view.getShowSubdomain());
+    assertEquals(ViewerControlMode.VOTING, view.getPreferences().getViewerControlMode());
+    assertEquals(show.getSequences(), view.getSequences());
+    assertEquals(show.getRequests(), view.getRequests());
+    assertEquals(show.getVotes(), view.getVotes());
+    assertEquals(show.getPsaSequences(), view.getPsaSequences());
+    assertEquals(show.getSequenceGroups(), view.getSequenceGroups());
+    assertEquals(show.getStats(), view.getStats());
+  }
+
+  @Test
+  void arrays_areMutableAndDecodedOnce() {
+    Show view = LazyShow.of(new RawBsonDocument(buildShow(), CODEC_REGISTRY.get(Show.class)), CODEC_REGISTRY);
+
+    view.getRequests().add(Request.builder().position(3).build());
+
+    assertEquals(3, view.getRequests().size());
+    assertSame(view.getRequests(), view.getRequests());
+  }
+
+  @Test
+  void setters_winOverLazyDecoding() {
+    Show view = LazyShow.of(new RawBsonDocument(buildShow(), CODEC_REGISTRY.get(Show.class)), CODEC_REGISTRY);
+
+    view.setVotes(null);
+
+    assertNull(view.getVotes());
+  }
+
+  private Show buildShow() {
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    Sequence sequence = Sequence.builder().name("A").displayName("Song A").index(1).order(1).active(true)
+        .visible(true).visibilityCount(0).build();
+    Show show = new Show();
+    show.setShowToken("token");
+    show.setShowSubdomain("mysub");
+    show.setPreferences(Preference.builder().viewerControlMode(ViewerControlMode.VOTING).build());
+    show.setSequences(new ArrayList<>(List.of(sequence)));
+    show.setSequenceGroups(new ArrayList<>(List.of(SequenceGroup.builder().name("G").visibilityCount(0).build())));
+    show.setPsaSequences(new ArrayList<>(List.of(PsaSequence.builder().name("PSA").order(1).lastPlayed(now).build())));
+    show.setRequests(new ArrayList<>(List.of(
+        Request.builder().sequence(sequence).position(1).build(),
+        Request.builder().sequence(sequence).position(2).build())));
+    show.setVotes(new ArrayList<>(List.of(Vote.builder().sequence(sequence).votes(2).lastVoteTime(now)
+        .viewersVoted(new ArrayList<>(List.of("ip1"))).build())));
+    show.setStats(Stat.builder().votingWin(new ArrayList<>(List.of(
+        Stat.VotingWin.builder().name("A").dateTime(now).build()))).build());
+    return show;
+  }
+}
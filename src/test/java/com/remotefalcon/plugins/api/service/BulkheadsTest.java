@@ -0,0 +1,96 @@
+package com.remotefalcon.plugins.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadsTest {
+
+  private Bulkheads bulkheads;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    bulkheads = new Bulkheads();
+    bulkheads.meterRegistry = meterRegistry;
+    bulkheads.enabled = true;
+    bulkheads.realtimeThreads = 4;
+    bulkheads.realtimeQueue = 64;
+    bulkheads.bulkThreads = 2;
+    bulkheads.bulkQueue = 8;
+    bulkheads.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    bulkheads.shutdown();
+  }
+
+  @Test
+  void realtimeCallsCompleteWhileBulkPoolIsBlocked() throws Exception {
+    CountDownLatch stormOver = new CountDownLatch(1);
+    // Fill the bulk pool and its queue with syncs that only finish once the real-time calls are done
+    List<CompletableFuture<Integer>> syncs = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      syncs.add(bulkheads.submit(Bulkheads.Pool.BULK, () -> {
+        awaitQuietly(stormOver);
+        return 1;
+      }).toCompletableFuture());
+    }
+    assertThrows(WebApplicationException.class, () -> bulkheads.submit(Bulkheads.Pool.BULK, () -> 1));
+
+    List<CompletableFuture<Integer>> calls = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      calls.add(bulkheads.submit(Bulkheads.Pool.REALTIME, () -> 1).toCompletableFuture());
+    }
+    // A shared pool would have left every real-time call waiting behind the blocked syncs
+    CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+    assertTrue(syncs.stream().noneMatch(CompletableFuture::isDone));
+
+    stormOver.countDown();
+    CompletableFuture.allOf(syncs.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+    assertEquals(1.0, meterRegistry.get("plugin.bulkhead.rejected").tag("pool", "bulk").counter().count());
+    assertEquals(0.0, meterRegistry.get("plugin.bulkhead.rejected").tag("pool", "realtime").counter().count());
+  }
+
+  @Test
+  void submit_passesFailuresThroughUnwrapped() {
+    IllegalStateException failure = new IllegalStateException("boom");
+
+    CompletableFuture<Object> result = bulkheads.submit(Bulkheads.Pool.REALTIME, () -> {
+      throw failure;
+    }).toCompletableFuture();
+
+    Exception thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertSame(failure, thrown.getCause());
+  }
+
+  @Test
+  void submit_runsInlineWhenDisabled() {
+    bulkheads.enabled = false;
+    Thread caller = Thread.currentThread();
+
+    Thread ranOn = bulkheads.submit(Bulkheads.Pool.BULK, Thread::currentThread).toCompletableFuture().join();
+
+    assertSame(caller, ranOn);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(60, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
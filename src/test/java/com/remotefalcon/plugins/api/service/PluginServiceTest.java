@@ -5,7 +5,6 @@ import com.remotefalcon.library.models.*;
 import com.remotefalcon.library.quarkus.entity.Show;
 import com.remotefalcon.plugins.api.context.ShowContext;
 import com.remotefalcon.plugins.api.model.*;
-import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
@@ -19,7 +18,6 @@ import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
 @QuarkusTest
 class PluginServiceTest {
@@ -27,8 +25,7 @@ class PluginServiceTest {
   @Inject
   PluginService pluginService;
 
-  @InjectMock
-  ShowContext showContext;
+  private ShowContext showContext;
 
   private Show baseShow;
 
@@ -36,7 +33,9 @@ class PluginServiceTest {
   void setup() {
     baseShow = buildBaseShow();
     baseShow.setShowToken("test-token"); // Required for MongoDB updates
-    when(showContext.getShow()).thenReturn(baseShow);
+    showContext = new ShowContext();
+    showContext.setShowToken(baseShow.getShowToken());
+    showContext.setShow(baseShow);
   }
 
   private Show buildBaseShow() {
@@ -70,7 +69,7 @@ class PluginServiceTest {
   void nextPlaylistInQueue_emptyQueue_returnsDefault() {
     baseShow.setRequests(new ArrayList<>());
 
-    NextPlaylistResponse resp = pluginService.nextPlaylistInQueue();
+    NextPlaylistResponse resp = pluginService.nextPlaylistInQueue(showContext);
     assertNull(resp.getNextPlaylist());
     assertEquals(-1, resp.getPlaylistIndex());
   }
@@ -90,7 +89,7 @@ class PluginServiceTest {
         Request.builder().position(1).sequence(seq2).build()
     )));
 
-    NextPlaylistResponse resp = pluginService.nextPlaylistInQueue();
+    NextPlaylistResponse resp = pluginService.nextPlaylistInQueue(showContext);
     assertEquals("B", resp.getNextPlaylist());
     assertEquals(7, resp.getPlaylistIndex());
     // Group visibility should increment by hideSequenceCount+1 => 3
@@ -100,10 +99,10 @@ class PluginServiceTest {
   @Test
   void updatePlaylistQueue_returnsQueueEmptyOrSuccess() {
     baseShow.setRequests(new ArrayList<>());
-    assertEquals("Queue Empty", pluginService.updatePlaylistQueue().getMessage());
+    assertEquals("Queue Empty", pluginService.updatePlaylistQueue(showContext).getMessage());
 
     baseShow.setRequests(new ArrayList<>(List.of(Request.builder().build())));
-    assertEquals("Success", pluginService.updatePlaylistQueue().getMessage());
+    assertEquals("Success", pluginService.updatePlaylistQueue(showContext).getMessage());
   }
 
   @Test
@@ -114,7 +113,7 @@ class PluginServiceTest {
       many.add(SyncPlaylistDetails.builder().playlistName("P" + i).playlistIndex(i).playlistDuration(10).build());
     }
     SyncPlaylistRequest req = SyncPlaylistRequest.builder().playlists(many).build();
-    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> pluginService.syncPlaylists(req));
+    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> pluginService.syncPlaylists(showContext, req));
     assertEquals(400, ex.getResponse().getStatus());
   }
 
@@ -135,21 +134,40 @@ class PluginServiceTest {
         SyncPlaylistDetails.builder().playlistName("Psa2").playlistDuration(50).playlistIndex(3).playlistType("SEQUENCE").build()
     )).build();
 
-    PluginResponse resp = pluginService.syncPlaylists(req);
+    PluginResponse resp = pluginService.syncPlaylists(showContext, req);
     assertEquals("Success", resp.getMessage());
-    // Note: baseShow in-memory object is not modified; only MongoDB is updated atomically with computed sequences
+    // The in-memory show mirrors the persisted sequences; Psa1 is no longer in the playlist so PSAs are disabled
+    assertTrue(baseShow.getSequences().stream().anyMatch(s -> Objects.equals("New", s.getName())));
+    assertTrue(baseShow.getPsaSequences().isEmpty());
+    assertFalse(baseShow.getPreferences().getPsaEnabled());
+  }
+
+  @Test
+  void syncPlaylists_keepsPsaWhosePlaylistDiffersOnlyInCase() {
+    baseShow.setSequences(new ArrayList<>());
+    baseShow.setPsaSequences(new ArrayList<>(List.of(
+        PsaSequence.builder().name("Psa1").order(1).lastPlayed(LocalDateTime.now().minusDays(1)).build()
+    )));
+
+    SyncPlaylistRequest req = SyncPlaylistRequest.builder().playlists(List.of(
+        SyncPlaylistDetails.builder().playlistName("PSA1").playlistDuration(50).playlistIndex(1).playlistType("SEQUENCE").build()
+    )).build();
+
+    assertEquals("Success", pluginService.syncPlaylists(showContext, req).getMessage());
+    assertEquals(1, baseShow.getPsaSequences().size());
+    assertEquals("Psa1", baseShow.getPsaSequences().getFirst().getName());
   }
 
   @Test
   void updateWhatsPlaying_nullOrEmptyRequest_returnsEmptyResponseOrSetsPlayingNow() {
     // null request
-    PluginResponse none = pluginService.updateWhatsPlaying(null);
+    PluginResponse none = pluginService.updateWhatsPlaying(showContext, null);
     assertNull(none.getCurrentPlaylist());
 
     // preferences missing
     baseShow.setPreferences(null);
     UpdateWhatsPlayingRequest req = UpdateWhatsPlayingRequest.builder().playlist("X").build();
-    assertThrows(WebApplicationException.class, () -> pluginService.updateWhatsPlaying(req));
+    assertThrows(WebApplicationException.class, () -> pluginService.updateWhatsPlaying(showContext, req));
 
     // restore prefs and simple flow
     baseShow.setPreferences(Preference.builder().viewerControlMode(ViewerControlMode.JUKEBOX).sequencesPlayed(0).managePsa(false).psaEnabled(false).psaFrequency(3).hideSequenceCount(0).resetVotes(true).viewerControlEnabled(true).build());
@@ -157,7 +175,7 @@ class PluginServiceTest {
         Sequence.builder().name("X").visibilityCount(1).build(),
         Sequence.builder().name("Y").visibilityCount(0).build()
     )));
-    PluginResponse resp = pluginService.updateWhatsPlaying(UpdateWhatsPlayingRequest.builder().playlist("X").build());
+    PluginResponse resp = pluginService.updateWhatsPlaying(showContext, UpdateWhatsPlayingRequest.builder().playlist("X").build());
     assertEquals("X", resp.getCurrentPlaylist());
     // sequencesPlayed increments (not PSA, not grouped)
     assertEquals(1, baseShow.getPreferences().getSequencesPlayed());
@@ -170,23 +188,23 @@ class PluginServiceTest {
   @Test
   void updateNextScheduledSequence_handlesNullPrefsAndPersists() {
     baseShow.setPreferences(null);
-    assertThrows(WebApplicationException.class, () -> pluginService.updateNextScheduledSequence(UpdateNextScheduledRequest.builder().sequence("A").build()));
+    assertThrows(WebApplicationException.class, () -> pluginService.updateNextScheduledSequence(showContext, UpdateNextScheduledRequest.builder().sequence("A").build()));
 
     baseShow.setPreferences(Preference.builder().viewerControlMode(ViewerControlMode.JUKEBOX).viewerControlEnabled(true).hideSequenceCount(0).managePsa(false).psaEnabled(false).psaFrequency(3).resetVotes(true).sequencesPlayed(0).build());
-    PluginResponse resp = pluginService.updateNextScheduledSequence(UpdateNextScheduledRequest.builder().sequence("NextSeq").build());
+    PluginResponse resp = pluginService.updateNextScheduledSequence(showContext, UpdateNextScheduledRequest.builder().sequence("NextSeq").build());
     assertEquals("NextSeq", resp.getNextScheduledSequence());
   }
 
   @Test
   void viewerControlMode_returnsLowercase() {
     baseShow.getPreferences().setViewerControlMode(ViewerControlMode.VOTING);
-    assertEquals("voting", pluginService.viewerControlMode().getViewerControlMode());
+    assertEquals("voting", pluginService.viewerControlMode(showContext).getViewerControlMode());
   }
 
   @Test
   void highestVotedPlaylist_emptyVotes_returnsDefaultAndPersists() {
     baseShow.setVotes(new ArrayList<>());
-    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist();
+    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist(showContext);
     assertNull(resp.getWinningPlaylist());
     assertEquals(-1, resp.getPlaylistIndex());
   }
@@ -204,21 +222,21 @@ class PluginServiceTest {
         Vote.builder().sequence(s1).votes(5).lastVoteTime(LocalDateTime.now()).ownerVoted(false).build()
     )));
 
-    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist();
+    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist(showContext);
     assertEquals("Song1", resp.getWinningPlaylist());
     assertEquals(9, resp.getPlaylistIndex());
   }
 
   @Test
   void pluginVersion_setsVersions_andPersists() {
-    PluginResponse resp = pluginService.pluginVersion(PluginVersion.builder().pluginVersion("1.0").fppVersion("7.0").build());
+    PluginResponse resp = pluginService.pluginVersion(showContext, PluginVersion.builder().pluginVersion("1.0").fppVersion("7.0").build());
     assertEquals("Success", resp.getMessage());
   }
 
   @Test
   void remotePreferences_returnsSubdomainAndMode() {
     baseShow.getPreferences().setViewerControlMode(ViewerControlMode.JUKEBOX);
-    RemotePreferenceResponse resp = pluginService.remotePreferences();
+    RemotePreferenceResponse resp = pluginService.remotePreferences(showContext);
     assertEquals("mysub", resp.getRemoteSubdomain());
     assertEquals("jukebox", resp.getViewerControlMode());
   }
@@ -228,14 +246,15 @@ class PluginServiceTest {
     baseShow.setRequests(new ArrayList<>(List.of(Request.builder().build())));
     baseShow.setVotes(new ArrayList<>(List.of(Vote.builder().sequence(Sequence.builder().name("X").build()).votes(1).build())));
 
-    PluginResponse p1 = pluginService.purgeQueue();
+    PluginResponse p1 = pluginService.purgeQueue(showContext);
     assertEquals("Success", p1.getMessage());
-    // Note: baseShow in-memory object is not modified; only MongoDB is updated atomically
+    assertTrue(baseShow.getRequests().isEmpty());
+    assertTrue(baseShow.getVotes().isEmpty());
 
     baseShow.setVotes(new ArrayList<>(List.of(Vote.builder().sequence(Sequence.builder().name("Z").build()).votes(2).build())));
-    PluginResponse p2 = pluginService.resetAllVotes();
+    PluginResponse p2 = pluginService.resetAllVotes(showContext);
     assertEquals("Success", p2.getMessage());
-    // Note: baseShow in-memory object is not modified; only MongoDB is updated atomically
+    assertTrue(baseShow.getVotes().isEmpty());
   }
 
   @Test
@@ -243,29 +262,31 @@ class PluginServiceTest {
     baseShow.getPreferences().setViewerControlEnabled(true);
     baseShow.getPreferences().setSequencesPlayed(10);
 
-    PluginResponse resp = pluginService.toggleViewerControl();
+    PluginResponse resp = pluginService.toggleViewerControl(showContext);
     // Implementation returns the new (flipped) value
     assertFalse(resp.getViewerControlEnabled());
-    // Note: baseShow in-memory object is not modified; only MongoDB is updated atomically
+    // The in-memory show mirrors the persisted change
+    assertFalse(baseShow.getPreferences().getViewerControlEnabled());
+    assertEquals(0, baseShow.getPreferences().getSequencesPlayed());
   }
 
   @Test
   void updateViewerControl_setsFromYN_andPersists() {
     baseShow.setPreferences(Preference.builder().viewerControlEnabled(false).viewerControlMode(ViewerControlMode.JUKEBOX).hideSequenceCount(0).managePsa(false).psaEnabled(false).psaFrequency(3).resetVotes(true).sequencesPlayed(0).build());
-    PluginResponse respY = pluginService.updateViewerControl(ViewerControlRequest.builder().viewerControlEnabled("Y").build());
+    PluginResponse respY = pluginService.updateViewerControl(showContext, ViewerControlRequest.builder().viewerControlEnabled("Y").build());
     assertTrue(respY.getViewerControlEnabled());
 
-    PluginResponse respN = pluginService.updateViewerControl(ViewerControlRequest.builder().viewerControlEnabled("N").build());
+    PluginResponse respN = pluginService.updateViewerControl(showContext, ViewerControlRequest.builder().viewerControlEnabled("N").build());
     assertFalse(respN.getViewerControlEnabled());
   }
 
   @Test
   void updateManagedPsa_setsFromYN_andPersists() {
     baseShow.setPreferences(Preference.builder().managePsa(false).viewerControlEnabled(true).viewerControlMode(ViewerControlMode.JUKEBOX).hideSequenceCount(0).psaEnabled(false).psaFrequency(3).resetVotes(true).sequencesPlayed(0).build());
-    PluginResponse respY = pluginService.updateManagedPsa(ManagedPSARequest.builder().managedPsaEnabled("Y").build());
+    PluginResponse respY = pluginService.updateManagedPsa(showContext, ManagedPSARequest.builder().managedPsaEnabled("Y").build());
     assertTrue(respY.getManagedPsaEnabled());
 
-    PluginResponse respN = pluginService.updateManagedPsa(ManagedPSARequest.builder().managedPsaEnabled("N").build());
+    PluginResponse respN = pluginService.updateManagedPsa(showContext, ManagedPSARequest.builder().managedPsaEnabled("N").build());
     assertFalse(respN.getManagedPsaEnabled());
   }
 
@@ -281,7 +302,7 @@ class PluginServiceTest {
 
   //     assertNull(baseShow.getLastFppHeartbeat()); // in-memory object remains unchanged
 
-  //     pluginService.fppHeartbeat();
+  //     pluginService.fppHeartbeat(showContext);
 
   //     // Verify the database record has been updated
   //     com.remotefalcon.library.quarkus.entity.Show dbShow =
@@ -304,7 +325,7 @@ class PluginServiceTest {
         Request.builder().position(1).sequence(seq).build()
     )));
 
-    NextPlaylistResponse resp = pluginService.nextPlaylistInQueue();
+    NextPlaylistResponse resp = pluginService.nextPlaylistInQueue(showContext);
     assertEquals("Solo", resp.getNextPlaylist());
     assertEquals(1, resp.getPlaylistIndex());
     Optional<Sequence> seqOpt = baseShow.getSequences().stream().filter(s -> Objects.equals("Solo", s.getName())).findFirst();
@@ -334,7 +355,7 @@ class PluginServiceTest {
         PsaSequence.builder().name("PSA1").order(1).lastPlayed(LocalDateTime.now().minusHours(1)).build()
     )));
 
-    pluginService.updateWhatsPlaying(UpdateWhatsPlayingRequest.builder().playlist("Play1").build());
+    pluginService.updateWhatsPlaying(showContext, UpdateWhatsPlayingRequest.builder().playlist("Play1").build());
 
     boolean hasPsaVote = baseShow.getVotes().stream().anyMatch(v -> v.getSequence() != null && "PSA1".equals(v.getSequence().getName()) && v.getVotes() != null && v.getVotes() >= 2000);
     boolean hasPsaRequest = baseShow.getRequests().stream().anyMatch(r -> r.getSequence() != null && "PSA1".equals(r.getSequence().getName()));
@@ -364,7 +385,7 @@ class PluginServiceTest {
         PsaSequence.builder().name("PSA1").order(1).lastPlayed(LocalDateTime.now().minusHours(1)).build()
     )));
 
-    pluginService.updateWhatsPlaying(UpdateWhatsPlayingRequest.builder().playlist("Play1").build());
+    pluginService.updateWhatsPlaying(showContext, UpdateWhatsPlayingRequest.builder().playlist("Play1").build());
 
     boolean hasPsaVote = baseShow.getVotes().stream().anyMatch(v -> v.getSequence() != null && "PSA1".equals(v.getSequence().getName()) && v.getVotes() != null && v.getVotes() >= 2000);
     boolean hasPsaRequest = baseShow.getRequests().stream().anyMatch(r -> r.getSequence() != null && "PSA1".equals(r.getSequence().getName()));
@@ -392,7 +413,7 @@ class PluginServiceTest {
         Vote.builder().sequence(Sequence.builder().name("Song").build()).viewersVoted(new ArrayList<>(List.of("ip3"))).votes(1).lastVoteTime(LocalDateTime.now()).build()
     )));
 
-    pluginService.updateWhatsPlaying(UpdateWhatsPlayingRequest.builder().playlist("Song").build());
+    pluginService.updateWhatsPlaying(showContext, UpdateWhatsPlayingRequest.builder().playlist("Song").build());
     // Note: baseShow in-memory object is not modified; only MongoDB is updated atomically
   }
 
@@ -410,7 +431,7 @@ class PluginServiceTest {
         Vote.builder().sequenceGroup(SequenceGroup.builder().name("G1").build()).votes(10).lastVoteTime(LocalDateTime.now()).ownerVoted(false).build()
     )));
 
-    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist();
+    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist(showContext);
     assertEquals("S1", resp.getWinningPlaylist());
     assertEquals(11, resp.getPlaylistIndex());
     Optional<SequenceGroup> grp = baseShow.getSequenceGroups().stream().filter(g -> Objects.equals("G1", g.getName())).findFirst();
@@ -439,7 +460,7 @@ class PluginServiceTest {
         Vote.builder().sequence(winner).votes(10).lastVoteTime(LocalDateTime.now()).ownerVoted(false).build()
     )));
 
-    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist();
+    HighestVotedPlaylistResponse resp = pluginService.highestVotedPlaylist(showContext);
     assertEquals("WIN", resp.getWinningPlaylist());
     boolean psaVotePresent = baseShow.getVotes().stream().anyMatch(v -> v.getSequence() != null && "PSA1".equals(v.getSequence().getName()) && v.getVotes() != null && v.getVotes() >= 2000);
     assertTrue(psaVotePresent);
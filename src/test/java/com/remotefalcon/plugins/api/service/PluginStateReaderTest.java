@@ -0,0 +1,72 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.plugins.api.model.PluginState;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginStateReaderTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 12, 1, 18, 0);
+
+  @Test
+  void fromDocument_readsTheProjection() {
+    Document show = new Document("preferences", new Document("viewerControlMode", "VOTING")
+        .append("viewerControlEnabled", true)
+        .append("managePsa", false))
+        .append("requests", List.of(
+            request("Second", 2),
+            request("First", 1)))
+        .append("votes", List.of(
+            vote("sequence", "Late", 3, NOW.plusMinutes(1)),
+            vote("sequenceGroup", "Early", 3, NOW),
+            vote("sequence", "Behind", 1, NOW.minusMinutes(5))));
+
+    PluginState state = PluginStateReader.fromDocument(show);
+
+    assertEquals("voting", state.getViewerControlMode());
+    assertTrue(state.getViewerControlEnabled());
+    assertFalse(state.getManagedPsaEnabled());
+    assertEquals(2, state.getQueueDepth());
+    assertEquals("First", state.getQueueHead());
+    // Tied on votes, so the earlier vote leads, as in highestVotedPlaylist
+    assertEquals("Early", state.getVoteLeader());
+  }
+
+  @Test
+  void fromDocument_handlesAnEmptyShow() {
+    PluginState state = PluginStateReader.fromDocument(new Document());
+
+    assertNull(state.getViewerControlMode());
+    assertEquals(0, state.getQueueDepth());
+    assertNull(state.getQueueHead());
+    assertNull(state.getVoteLeader());
+  }
+
+  @Test
+  void etag_changesOnlyWithTheSnapshot() {
+    PluginState state = PluginState.builder().viewerControlMode("jukebox").queueDepth(1).queueHead("First").build();
+    PluginState same = PluginState.builder().viewerControlMode("jukebox").queueDepth(1).queueHead("First").build();
+    PluginState changed = PluginState.builder().viewerControlMode("jukebox").queueDepth(2).queueHead("First").build();
+
+    assertEquals(PluginStateReader.etag(state), PluginStateReader.etag(same));
+    assertNotEquals(PluginStateReader.etag(state), PluginStateReader.etag(changed));
+    assertTrue(PluginStateReader.etag(state).isWeak());
+  }
+
+  private static Document request(String name, int position) {
+    return new Document("position", position).append("sequence", new Document("name", name));
+  }
+
+  private static Document vote(String field, String name, int votes, LocalDateTime lastVoteTime) {
+    return new Document("votes", votes)
+        .append("lastVoteTime", Date.from(lastVoteTime.atZone(ZoneId.systemDefault()).toInstant()))
+        .append(field, new Document("name", name));
+  }
+}
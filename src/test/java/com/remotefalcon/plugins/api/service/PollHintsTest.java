@@ -0,0 +1,75 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.library.enums.ViewerControlMode;
+import com.remotefalcon.library.models.Preference;
+import com.remotefalcon.library.quarkus.entity.Show;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PollHintsTest {
+
+  private PollHints pollHints;
+  private Show show;
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+
+  @BeforeEach
+  void setup() {
+    pollHints = new PollHints();
+    pollHints.enabled = true;
+    pollHints.min = Duration.ofSeconds(2);
+    pollHints.idle = Duration.ofSeconds(10);
+    pollHints.max = Duration.ofSeconds(30);
+    pollHints.idleAfter = Duration.ofMinutes(5);
+    pollHints.maxShows = 100;
+    pollHints.clock = now::get;
+
+    show = new Show();
+    show.setShowToken("poll-hint-token");
+    show.setPreferences(Preference.builder()
+        .viewerControlEnabled(true)
+        .viewerControlMode(ViewerControlMode.JUKEBOX)
+        .build());
+  }
+
+  @Test
+  void nextPollSeconds_backsOffFullyWhenViewerControlIsOff() {
+    show.getPreferences().setViewerControlEnabled(false);
+
+    assertEquals(30, pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, false));
+    assertEquals(30, pollHints.nextPollSeconds(show, PollHints.Endpoint.VOTES, false));
+  }
+
+  @Test
+  void nextPollSeconds_backsOffFullyForTheOtherMode() {
+    assertEquals(30, pollHints.nextPollSeconds(show, PollHints.Endpoint.VOTES, true));
+  }
+
+  @Test
+  void nextPollSeconds_pollsFastWhileThereIsWork() {
+    assertEquals(2, pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, true));
+  }
+
+  @Test
+  void nextPollSeconds_slowsDownAsTheShowGoesIdle() {
+    assertEquals(30, pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, false), "never active");
+
+    pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, true);
+    now.addAndGet(Duration.ofMinutes(1).toMillis());
+    assertEquals(10, pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, false));
+
+    now.addAndGet(Duration.ofMinutes(5).toMillis());
+    assertEquals(30, pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, false));
+  }
+
+  @Test
+  void nextPollSeconds_isNullWhenDisabled() {
+    pollHints.enabled = false;
+
+    assertNull(pollHints.nextPollSeconds(show, PollHints.Endpoint.QUEUE, true));
+  }
+}
@@ -0,0 +1,83 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remotefalcon.plugins.api.context.ShowContext;
+import com.remotefalcon.plugins.api.model.PluginResponse;
+import com.remotefalcon.plugins.api.model.RemotePreferenceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodiesTest {
+
+  private ResponseBodies responseBodies;
+  private ShowContext showContext;
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @BeforeEach
+  void setup() {
+    responseBodies = new ResponseBodies();
+    responseBodies.objectMapper = new ObjectMapper();
+    responseBodies.enabled = true;
+    responseBodies.maxEntries = 100;
+    responseBodies.init();
+
+    showContext = new ShowContext();
+    showContext.setShowToken("response-cache-token");
+  }
+
+  @Test
+  void cached_reusesTheBytesOfAnEqualResponse() {
+    Object first = responseBodies.cached(showContext, "remotePreferences", () -> preferences("jukebox"));
+    Object second = responseBodies.cached(showContext, "remotePreferences", () -> preferences("jukebox"));
+
+    assertEquals(2, calls.get());
+    assertSame(first, second);
+    assertTrue(body(first).contains("\"remoteSubdomain\":\"show\""));
+  }
+
+  @Test
+  void cached_seesChangesMadeOutsideThisService() {
+    // e.g. the control panel switching modes: nothing here was told, but the rebuilt response differs
+    responseBodies.cached(showContext, "remotePreferences", () -> preferences("jukebox"));
+    Object changed = responseBodies.cached(showContext, "remotePreferences", () -> preferences("voting"));
+
+    assertTrue(body(changed).contains("\"viewerControlMode\":\"voting\""));
+  }
+
+  @Test
+  void cached_servesConstantBodiesFromStartup() throws Exception {
+    Object first = responseBodies.cached(showContext, "updatePlaylistQueue",
+        () -> PluginResponse.builder().message("Queue Empty").build());
+    ShowContext other = new ShowContext();
+    other.setShowToken("another-token");
+    Object second = responseBodies.cached(other, "updatePlaylistQueue",
+        () -> PluginResponse.builder().message("Queue Empty").build());
+
+    assertSame(first, second);
+    PluginResponse decoded = new ObjectMapper().readValue((byte[]) first, PluginResponse.class);
+    assertEquals("Queue Empty", decoded.getMessage());
+  }
+
+  @Test
+  void cached_returnsTheEntityWhenDisabled() {
+    responseBodies.enabled = false;
+
+    Object response = responseBodies.cached(showContext, "remotePreferences", () -> preferences("jukebox"));
+
+    assertInstanceOf(RemotePreferenceResponse.class, response);
+  }
+
+  private RemotePreferenceResponse preferences(String viewerControlMode) {
+    calls.incrementAndGet();
+    return RemotePreferenceResponse.builder().viewerControlMode(viewerControlMode).remoteSubdomain("show").build();
+  }
+
+  private static String body(Object response) {
+    return new String((byte[]) response, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,69 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.library.models.PsaSequence;
+import com.remotefalcon.library.models.Request;
+import com.remotefalcon.library.models.Sequence;
+import com.remotefalcon.library.models.SequenceGroup;
+import com.remotefalcon.library.models.Vote;
+import com.remotefalcon.library.quarkus.entity.Show;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceCompactorTest {
+
+  private Show show;
+
+  @BeforeEach
+  void setup() {
+    show = new Show();
+    show.setSequences(new ArrayList<>(List.of(
+        sequence("Active", true, null),
+        sequence("Old Song", false, null),
+        sequence("Grouped", false, "Medley"),
+        sequence("Orphaned", false, "Gone Group"),
+        sequence("Old PSA", false, null),
+        sequence("Voted", false, null),
+        sequence("Requested", false, null),
+        sequence("Queued", false, null))));
+    show.setSequenceGroups(List.of(SequenceGroup.builder().name("Medley").build()));
+    show.setPsaSequences(List.of(PsaSequence.builder().name("Old PSA").build()));
+    show.setVotes(List.of(Vote.builder().sequence(Sequence.builder().name("Voted").build()).votes(1).build()));
+    show.setRequests(List.of(Request.builder().sequence(Sequence.builder().name("Requested").build()).position(1).build()));
+  }
+
+  @Test
+  void removableSequences_skipsEverythingStillReferenced() {
+    Set<String> expired = Set.of("active", "old song", "grouped", "orphaned", "old psa", "voted", "requested", "queued");
+
+    List<Sequence> removable = SequenceCompactor.removableSequences(show, expired, List.of("Queued"));
+
+    assertEquals(List.of("Old Song", "Orphaned"), removable.stream().map(Sequence::getName).toList());
+  }
+
+  @Test
+  void removableSequences_onlyTakesExpiredNames() {
+    List<Sequence> removable = SequenceCompactor.removableSequences(show, Set.of("orphaned"), List.of());
+
+    assertEquals(List.of("Orphaned"), removable.stream().map(Sequence::getName).toList());
+  }
+
+  @Test
+  void removableSequences_toleratesMissingCollections() {
+    Show bare = new Show();
+    bare.setSequences(new ArrayList<>(List.of(sequence("Old Song", false, null))));
+
+    List<Sequence> removable = SequenceCompactor.removableSequences(bare, Set.of("old song"), List.of());
+
+    assertEquals(1, removable.size());
+  }
+
+  private static Sequence sequence(String name, boolean active, String group) {
+    return Sequence.builder().name(name).displayName(name).active(active).group(group).build();
+  }
+}
@@ -0,0 +1,80 @@
+package com.remotefalcon.plugins.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowLockManagerTest {
+
+  private ShowLockManager showLockManager;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    showLockManager = new ShowLockManager();
+    showLockManager.meterRegistry = meterRegistry;
+    showLockManager.stripes = 16;
+    showLockManager.init();
+  }
+
+  @Test
+  void withLock_marksEarlierStampsStale() {
+    long stamp = showLockManager.stamp("show-a");
+    assertFalse(showLockManager.isStale("show-a", stamp));
+
+    showLockManager.withLock("show-a", () -> null);
+
+    assertTrue(showLockManager.isStale("show-a", stamp));
+    assertFalse(showLockManager.isStale("show-a", showLockManager.stamp("show-a")));
+  }
+
+  @Test
+  void withLock_serializesReadModifyWriteForSameShow() throws Exception {
+    int[] counter = {0};
+    AtomicInteger concurrent = new AtomicInteger();
+    AtomicInteger maxConcurrent = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        futures.add(executor.submit(() -> showLockManager.withLock("show-a", () -> {
+          maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+          int read = counter[0];
+          Thread.onSpinWait();
+          counter[0] = read + 1;
+          concurrent.decrementAndGet();
+          return null;
+        })));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(2000, counter[0]);
+    assertEquals(1, maxConcurrent.get());
+    assertEquals(2000, meterRegistry.get("show.lock.wait").timer().count());
+  }
+
+  @Test
+  void withLock_releasesAndBumpsGenerationWhenActionThrows() {
+    long stamp = showLockManager.stamp("show-a");
+
+    assertThrows(IllegalStateException.class, () -> showLockManager.withLock("show-a", () -> {
+      throw new IllegalStateException("boom");
+    }));
+
+    assertTrue(showLockManager.isStale("show-a", stamp));
+    assertEquals("ok", showLockManager.withLock("show-a", () -> "ok"));
+  }
+}
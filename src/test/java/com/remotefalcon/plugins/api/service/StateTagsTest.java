@@ -0,0 +1,93 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.plugins.api.repository.RequestQueueRepository;
+import com.remotefalcon.plugins.api.repository.ShowRepository;
+import jakarta.ws.rs.core.EntityTag;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StateTagsTest {
+
+  private StateTags stateTags;
+
+  @BeforeEach
+  void setup() {
+    stateTags = new StateTags();
+    stateTags.showRepository = mock(ShowRepository.class);
+    stateTags.requestQueueRepository = mock(RequestQueueRepository.class);
+    stateTags.enabled = true;
+  }
+
+  @Test
+  void isTagged_coversOnlyTheReadEndpoints() {
+    stateTags.init();
+
+    assertTrue(stateTags.isTagged("/viewerControlMode"));
+    assertTrue(stateTags.isTagged("/remotePreferences"));
+    assertTrue(stateTags.isTagged("/updatePlaylistQueue"));
+    assertFalse(stateTags.isTagged("/nextPlaylistInQueue"));
+  }
+
+  @Test
+  void isTagged_leavesTheQueueOutInCollectionMode() {
+    when(stateTags.requestQueueRepository.isEnabled()).thenReturn(true);
+    stateTags.init();
+
+    assertFalse(stateTags.isTagged("/updatePlaylistQueue"));
+    assertTrue(stateTags.isTagged("/viewerControlMode"));
+  }
+
+  @Test
+  void isTagged_isOffWhenDisabled() {
+    stateTags.enabled = false;
+    stateTags.init();
+    assertFalse(stateTags.isTagged("/viewerControlMode"));
+  }
+
+  @Test
+  void current_followsTheProjectedFieldsWhoeverWritesThem() {
+    stateTags.init();
+    List<String> fields = List.of("showSubdomain", "preferences.viewerControlMode");
+    when(stateTags.showRepository.findFields("token", fields))
+        .thenReturn(Optional.of(RawBsonDocument.parse("{\"showSubdomain\": \"show\", \"preferences\": {\"viewerControlMode\": \"JUKEBOX\"}}")));
+    EntityTag before = stateTags.current("/remotePreferences", "token").orElseThrow();
+
+    // e.g. the control panel switching to voting, with no help from this service
+    when(stateTags.showRepository.findFields("token", fields))
+        .thenReturn(Optional.of(RawBsonDocument.parse("{\"showSubdomain\": \"show\", \"preferences\": {\"viewerControlMode\": \"VOTING\"}}")));
+    EntityTag after = stateTags.current("/remotePreferences", "token").orElseThrow();
+
+    assertTrue(before.isWeak());
+    assertNotEquals(before, after);
+    assertEquals(after, stateTags.current("/viewerControlMode", "token").orElseThrow());
+  }
+
+  @Test
+  void current_isEmptyForAnUnknownShow() {
+    stateTags.init();
+    when(stateTags.showRepository.findFields("missing", List.of("requests.position"))).thenReturn(Optional.empty());
+
+    assertTrue(stateTags.current("/updatePlaylistQueue", "missing").isEmpty());
+  }
+
+  @Test
+  void matches_comparesWeakly() {
+    EntityTag etag = new EntityTag("42", true);
+
+    assertTrue(StateTags.matches("W/\"42\"", etag));
+    assertTrue(StateTags.matches("\"42\"", etag));
+    assertTrue(StateTags.matches("W/\"41\", W/\"42\"", etag));
+    assertTrue(StateTags.matches("*", etag));
+    assertFalse(StateTags.matches("W/\"41\"", etag));
+    assertFalse(StateTags.matches("W/\"420\"", etag));
+    assertFalse(StateTags.matches(null, etag));
+  }
+}
@@ -0,0 +1,97 @@
+package com.remotefalcon.plugins.api.service;
+
+import com.remotefalcon.library.models.Stat;
+import com.remotefalcon.library.quarkus.entity.Show;
+import com.remotefalcon.plugins.api.repository.VotingWinRollup;
+import com.remotefalcon.plugins.api.repository.VotingWinRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VotingWinRollupsTest {
+
+  private static final String TOKEN = "rollup-token";
+  private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+  private VotingWinRollups votingWinRollups;
+  private VotingWinRollupRepository votingWinRollupRepository;
+
+  @BeforeEach
+  void setup() {
+    votingWinRollupRepository = mock(VotingWinRollupRepository.class);
+    votingWinRollups = new VotingWinRollups();
+    votingWinRollups.votingWinRollupRepository = votingWinRollupRepository;
+    votingWinRollups.enabled = true;
+  }
+
+  @Test
+  void merge_countsWinsPerSequence() {
+    VotingWinRollup rollup = VotingWinRollups.merge(TOKEN, DAY, Optional.empty(),
+        List.of(win("Song A", DAY.atTime(18, 0)), win("Song B", DAY.atTime(18, 5)), win("Song A", DAY.atTime(18, 10))),
+        DAY.plusDays(1).atStartOfDay());
+
+    assertEquals(TOKEN + ":" + DAY, rollup.getId());
+    assertEquals(3, rollup.getTotal());
+    assertEquals("Song A", rollup.getWins().getFirst().getName());
+    assertEquals(2, rollup.getWins().getFirst().getWins());
+    assertEquals(DAY.plusDays(1).atStartOfDay(), rollup.getRolledUpTo());
+  }
+
+  @Test
+  void merge_skipsEntriesAlreadyRolledUp() {
+    VotingWinRollup previous = VotingWinRollups.merge(TOKEN, DAY, Optional.empty(),
+        List.of(win("Song A", DAY.atTime(18, 0))), DAY.atTime(19, 0));
+
+    // The 18:00 win is still in the show, e.g. because trimming failed after the rollup was written
+    VotingWinRollup next = VotingWinRollups.merge(TOKEN, DAY, Optional.of(previous),
+        List.of(win("Song A", DAY.atTime(18, 0)), win("Song A", DAY.atTime(19, 30))), DAY.atTime(20, 0));
+
+    assertEquals(2, next.getTotal());
+    assertEquals(2, next.getWins().getFirst().getWins());
+    assertEquals(DAY.atTime(20, 0), next.getRolledUpTo());
+  }
+
+  @Test
+  void winsToday_addsRollupAndRemainingEntries() {
+    LocalDate today = LocalDate.now();
+    LocalDateTime rolledUpTo = LocalDateTime.now().minusSeconds(10);
+    when(votingWinRollupRepository.findDay(TOKEN, today)).thenReturn(Optional.of(VotingWinRollup.builder()
+        .total(4)
+        .rolledUpTo(rolledUpTo)
+        .build()));
+    Show show = showWithWins(
+        win("Song A", LocalDateTime.now().minusDays(1)),
+        win("Song A", rolledUpTo.minusSeconds(1)),
+        win("Song B", LocalDateTime.now()));
+
+    assertEquals(5, votingWinRollups.winsToday(show));
+  }
+
+  @Test
+  void winsToday_onlyCountsEntriesWhenDisabled() {
+    votingWinRollups.enabled = false;
+    Show show = showWithWins(win("Song A", LocalDateTime.now().minusDays(1)), win("Song B", LocalDateTime.now()));
+
+    assertEquals(1, votingWinRollups.winsToday(show));
+    verifyNoInteractions(votingWinRollupRepository);
+  }
+
+  private static Show showWithWins(Stat.VotingWin... wins) {
+    Show show = new Show();
+    show.setShowToken(TOKEN);
+    show.setStats(Stat.builder().votingWin(new ArrayList<>(List.of(wins))).build());
+    return show;
+  }
+
+  private static Stat.VotingWin win(String name, LocalDateTime dateTime) {
+    return Stat.VotingWin.builder().name(name).dateTime(dateTime).build();
+  }
+}